@@ -0,0 +1,34 @@
+package com.example.bankcards.config;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Задаёт собственный таймаут асинхронной обработки для отдельных эндпоинтов по шаблону
+ * пути обработчика. Остальные запросы работают с таймаутом по умолчанию.
+ */
+public class AsyncTimeoutInterceptor implements CallableProcessingInterceptor {
+
+  private final Map<String, Duration> timeouts;
+
+  public AsyncTimeoutInterceptor(Map<String, Duration> timeouts) {
+    this.timeouts = Map.copyOf(timeouts);
+  }
+
+  @Override
+  public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+        RequestAttributes.SCOPE_REQUEST);
+    Duration timeout = pattern == null ? null : timeouts.get(pattern.toString());
+    if (timeout != null && request instanceof AsyncWebRequest asyncRequest) {
+      asyncRequest.setTimeout(timeout.toMillis());
+    }
+  }
+}
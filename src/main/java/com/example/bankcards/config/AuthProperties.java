@@ -0,0 +1,47 @@
+package com.example.bankcards.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "bank.auth")
+public record AuthProperties(
+    @DefaultValue("DATABASE")
+    Mode mode,
+
+    @DefaultValue("30s")
+    Duration revocationRefresh,
+
+    @DefaultValue
+    UserCache userCache,
+
+    @DefaultValue
+    PasswordHashing passwordHashing
+) {
+
+  public enum Mode {
+    DATABASE, STATELESS
+  }
+
+  public record UserCache(
+      @DefaultValue("100000")
+      long maximumSize,
+
+      @DefaultValue("5m")
+      Duration ttl
+  ) {}
+
+  public record PasswordHashing(
+      @DefaultValue("12")
+      int strength,
+
+      @DefaultValue("4")
+      int threads,
+
+      @DefaultValue("32")
+      int queueCapacity,
+
+      @DefaultValue("5s")
+      Duration timeout
+  ) {}
+}
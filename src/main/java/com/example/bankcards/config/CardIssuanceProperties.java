@@ -0,0 +1,17 @@
+package com.example.bankcards.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "bank.card-issuance")
+public record CardIssuanceProperties(
+    @DefaultValue("4")
+    int workers,
+
+    @DefaultValue("1000")
+    int chunkSize,
+
+    @DefaultValue("10m")
+    Duration requestTimeout
+) {}
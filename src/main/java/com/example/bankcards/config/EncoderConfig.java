@@ -1,15 +1,40 @@
 package com.example.bankcards.config;
 
+import com.example.bankcards.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Configuration
 public class EncoderConfig {
 
+    private static final String BCRYPT = "bcrypt";
+
+    private final AuthProperties authProperties;
+
+    private final MeterRegistry meterRegistry;
+
+    public EncoderConfig(AuthProperties authProperties, MeterRegistry meterRegistry) {
+        this.authProperties = authProperties;
+        this.meterRegistry = meterRegistry;
+    }
+
     @Bean
-    public BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder() {
+        AuthProperties.PasswordHashing passwordHashing = authProperties.passwordHashing();
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(passwordHashing.strength());
+
+        // Хеши без префикса {bcrypt} (начальные пользователи) проверяются BCrypt
+        // и перехешируются при следующем входе.
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(BCRYPT,
+            Map.of(BCRYPT, bcrypt));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        return new BoundedPasswordEncoder(delegating, passwordHashing, meterRegistry);
     }
 
 }
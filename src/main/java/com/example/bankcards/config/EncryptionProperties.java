@@ -0,0 +1,20 @@
+package com.example.bankcards.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.core.io.Resource;
+
+/**
+ * Ключевой набор Tink для шифрования номеров карт. Набор хранится зашифрованным мастер-ключом
+ * (AES-GCM, base64) и задаётся строкой JSON {@code keyset} либо файлом {@code keysetFile}.
+ * {@code blindIndexKey} (base64, не короче 32 байт) — ключ HMAC для поиска карты по номеру.
+ */
+@ConfigurationProperties(prefix = "encryption")
+public record EncryptionProperties(
+    String masterKey,
+
+    String keyset,
+
+    Resource keysetFile,
+
+    String blindIndexKey
+) {}
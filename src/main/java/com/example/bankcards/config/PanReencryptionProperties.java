@@ -0,0 +1,16 @@
+package com.example.bankcards.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "bank.pan-reencryption")
+public record PanReencryptionProperties(
+    @DefaultValue("500")
+    int chunkSize,
+
+    @DefaultValue("4")
+    int workers,
+
+    @DefaultValue("2000")
+    int cardsPerSecond
+) {}
@@ -61,6 +61,7 @@ public class SecurityConfig {
     DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
     authProvider.setUserDetailsService(userDetailsService);
     authProvider.setPasswordEncoder(encoderConfig.passwordEncoder());
+    authProvider.setUserDetailsPasswordService(userDetailsService);
     return authProvider;
   }
 
@@ -0,0 +1,41 @@
+package com.example.bankcards.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "bank.transfer")
+public record TransferProperties(
+    @DefaultValue("PESSIMISTIC")
+    LockingMode lockingMode,
+
+    @DefaultValue
+    Retry retry,
+
+    @DefaultValue
+    Idempotency idempotency
+) {
+
+  public enum LockingMode {
+    PESSIMISTIC, OPTIMISTIC, ATOMIC
+  }
+
+  public record Retry(
+      @DefaultValue("5")
+      int maxAttempts,
+
+      @DefaultValue("10ms")
+      Duration initialBackoff,
+
+      @DefaultValue("200ms")
+      Duration maxBackoff
+  ) {}
+
+  public record Idempotency(
+      @DefaultValue("10000")
+      long cacheSize,
+
+      @DefaultValue("10m")
+      Duration cacheTtl
+  ) {}
+}
@@ -0,0 +1,14 @@
+package com.example.bankcards.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "bank.user-export")
+public record UserExportProperties(
+    @DefaultValue("1000")
+    int fetchSize,
+
+    @DefaultValue("30m")
+    Duration requestTimeout
+) {}
@@ -0,0 +1,32 @@
+package com.example.bankcards.config;
+
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebAsyncConfig implements WebMvcConfigurer {
+
+  static final String BULK_ISSUANCE_PATH = "/api/v1/admin/cards/bulk";
+
+  static final String CARD_EXPORT_PATH = "/api/v1/admin/cards/export";
+
+  static final String USER_STREAM_PATH = "/api/v1/admin/users/stream";
+
+  private final CardIssuanceProperties cardIssuanceProperties;
+
+  private final CardExportProperties cardExportProperties;
+
+  private final UserExportProperties userExportProperties;
+
+  @Override
+  public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+    configurer.registerCallableInterceptors(new AsyncTimeoutInterceptor(Map.of(
+        BULK_ISSUANCE_PATH, cardIssuanceProperties.requestTimeout(),
+        CARD_EXPORT_PATH, cardExportProperties.requestTimeout(),
+        USER_STREAM_PATH, userExportProperties.requestTimeout())));
+  }
+}
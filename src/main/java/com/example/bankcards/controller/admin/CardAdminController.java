@@ -1,11 +1,20 @@
 package com.example.bankcards.controller.admin;
 
+import com.example.bankcards.dto.request.BulkCreateCardRequest;
+import com.example.bankcards.dto.request.CardNumberLookupRequest;
 import com.example.bankcards.dto.request.CreateCardRequest;
+import com.example.bankcards.dto.response.BulkCardIssueItemResponse;
+import com.example.bankcards.dto.response.CardExportRowResponse;
 import com.example.bankcards.dto.response.CardResponse;
 import com.example.bankcards.dto.response.CreateCardResponse;
+import com.example.bankcards.dto.response.CursorPageResponse;
 import com.example.bankcards.dto.response.MessageResponse;
+import com.example.bankcards.entity.enums.CardExportFormat;
 import com.example.bankcards.entity.enums.CardStatusEnum;
+import com.example.bankcards.service.CardExportService;
+import com.example.bankcards.service.CardIssuanceService;
 import com.example.bankcards.service.CardService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -14,13 +23,19 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.tags.Tags;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -32,6 +47,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/v1/admin/cards")
@@ -43,16 +59,26 @@ import org.springframework.web.bind.annotation.RequestMapping;
 })
 public class CardAdminController {
 
+  private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
   private final CardService cardService;
 
+  private final CardIssuanceService cardIssuanceService;
+
+  private final CardExportService cardExportService;
+
+  private final ObjectMapper objectMapper;
+
   @Operation(
       summary = "Просмотр всех карт",
-      description = "Администратор может просматривать все карты с возможностью поиска и пагинации."
+      description = "Администратор может просматривать все карты с возможностью поиска и пагинации. "
+          + "Строка поиска по последним цифрам номера должна содержать не менее 3 символов."
   )
   @ApiResponses(value = {
       @ApiResponse(responseCode = "200", description = "Список всех карт получен",
           content = @Content(mediaType = "application/json",
-              schema = @Schema(implementation = CardResponse.class)))
+              schema = @Schema(implementation = CardResponse.class))),
+      @ApiResponse(responseCode = "400", description = "Строка поиска короче 3 символов")
   })
   @GetMapping("/all")
   @Tag(name = "Admin")
@@ -64,6 +90,57 @@ public class CardAdminController {
     return cardService.getAllCards(search, pageable);
   }
 
+  @Operation(
+      summary = "Просмотр всех карт с курсорной пагинацией",
+      description = "Администратор получает карты от новых к старым без подсчёта общего количества. "
+          + "Для следующей страницы передаётся nextCursor из предыдущего ответа."
+  )
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Страница карт получена"),
+      @ApiResponse(responseCode = "400", description = "Некорректный курсор или размер страницы")
+  })
+  @GetMapping("/all/scroll")
+  @Tag(name = "Admin")
+  public CursorPageResponse<CardResponse> scrollAllCards(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "20") int size
+  ) {
+
+    return cardService.scrollAllCards(cursor, size);
+  }
+
+  @Operation(
+      summary = "Выгрузка всех карт",
+      description = "Администратор выгружает всю картотеку потоком в формате CSV или NDJSON "
+          + "с маскированными номерами, без постраничных запросов и подсчёта количества."
+  )
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Поток карт",
+          content = {
+              @Content(mediaType = "text/csv"),
+              @Content(mediaType = "application/x-ndjson",
+                  schema = @Schema(implementation = CardExportRowResponse.class))
+          }),
+      @ApiResponse(responseCode = "400", description = "Неизвестный формат выгрузки")
+  })
+  @GetMapping("/export")
+  @Tag(name = "Admin")
+  public ResponseEntity<StreamingResponseBody> exportCards(
+      @RequestParam(defaultValue = "NDJSON") CardExportFormat format
+  ) {
+
+    StreamingResponseBody body = out -> cardExportService.exportCards(format, out);
+
+    if (format == CardExportFormat.CSV) {
+      return ResponseEntity.ok()
+          .contentType(TEXT_CSV)
+          .header(HttpHeaders.CONTENT_DISPOSITION,
+              ContentDisposition.attachment().filename("cards.csv").build().toString())
+          .body(body);
+    }
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+  }
+
   @Operation(
       summary = "Просмотр информации о карте по ID",
       description = "Администратор может просмотреть карту пользователя по ID карты."
@@ -81,6 +158,26 @@ public class CardAdminController {
     return ResponseEntity.ok(cardService.usersCards(cardId));
   }
 
+  @Operation(
+      summary = "Поиск карты по номеру",
+      description = "Администратор находит карту по полному номеру. Номер передаётся в теле "
+          + "запроса, чтобы не попадать в журналы URL."
+  )
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Карта найдена",
+          content = @Content(mediaType = "application/json",
+              schema = @Schema(implementation = CardResponse.class))),
+      @ApiResponse(responseCode = "400", description = "Некорректный номер карты"),
+      @ApiResponse(responseCode = "404", description = "Карта с таким номером не найдена")
+  })
+  @PostMapping("/search-by-number")
+  @Tag(name = "Admin")
+  public ResponseEntity<CardResponse> findCardByNumber(
+      @RequestBody @Valid CardNumberLookupRequest request) {
+
+    return ResponseEntity.ok(cardService.findCardByNumber(request.cardNumber()));
+  }
+
   @Operation(
       summary = "Создание карты пользователю",
       description = "Администратор может создать карту пользователю."
@@ -98,6 +195,37 @@ public class CardAdminController {
     return ResponseEntity.status(HttpStatus.CREATED).body(cardService.createCard(request));
   }
 
+  @Operation(
+      summary = "Массовый выпуск карт",
+      description = "Администратор выпускает по одной карте на каждый ID из списка "
+          + "(до 50000 за запрос). Результат по каждой карте возвращается построчно "
+          + "в формате NDJSON по мере сохранения."
+  )
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Поток результатов выпуска",
+          content = @Content(mediaType = "application/x-ndjson",
+              schema = @Schema(implementation = BulkCardIssueItemResponse.class))),
+      @ApiResponse(responseCode = "400", description = "Некорректный список пользователей")
+  })
+  @PostMapping(value = "/bulk", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  @Tag(name = "Admin")
+  public ResponseEntity<StreamingResponseBody> createCards(
+      @RequestBody @Valid BulkCreateCardRequest request) {
+
+    StreamingResponseBody body = out -> cardIssuanceService.issueCards(request.userIds(),
+        item -> {
+          try {
+            out.write(objectMapper.writeValueAsBytes(item));
+            out.write('\n');
+            out.flush();
+          } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+          }
+        });
+
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+  }
+
   @Operation(
       summary = "Активация карты",
       description = "Администратор активирует карту пользователю."
@@ -0,0 +1,82 @@
+package com.example.bankcards.controller.admin;
+
+import com.example.bankcards.dto.response.PanReencryptionStatusResponse;
+import com.example.bankcards.service.PanReencryptionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import io.swagger.v3.oas.annotations.tags.Tags;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/admin/cards/reencryption")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@Tags(value = {
+    @Tag(name = "Card", description = "Операции с картами"),
+    @Tag(name = "Admin")
+})
+public class PanReencryptionAdminController {
+
+  private final PanReencryptionService panReencryptionService;
+
+  @Operation(
+      summary = "Запуск перешифрования номеров карт",
+      description = "После ротации ключевого набора администратор запускает фоновое "
+          + "перешифрование номеров карт основным ключом. Повторный запуск продолжает работу "
+          + "с контрольной точки."
+  )
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "202", description = "Перешифрование запущено",
+          content = @Content(mediaType = "application/json",
+              schema = @Schema(implementation = PanReencryptionStatusResponse.class))),
+      @ApiResponse(responseCode = "403", description = "Доступ запрещён")
+  })
+  @PostMapping
+  @Tag(name = "Admin")
+  public ResponseEntity<PanReencryptionStatusResponse> start() {
+    return ResponseEntity.status(HttpStatus.ACCEPTED).body(panReencryptionService.start());
+  }
+
+  @Operation(
+      summary = "Остановка перешифрования",
+      description = "Задача останавливается после текущей порции карт и сохраняет позицию."
+  )
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "202", description = "Остановка запрошена",
+          content = @Content(mediaType = "application/json",
+              schema = @Schema(implementation = PanReencryptionStatusResponse.class))),
+      @ApiResponse(responseCode = "403", description = "Доступ запрещён")
+  })
+  @PostMapping("/stop")
+  @Tag(name = "Admin")
+  public ResponseEntity<PanReencryptionStatusResponse> stop() {
+    return ResponseEntity.status(HttpStatus.ACCEPTED).body(panReencryptionService.stop());
+  }
+
+  @Operation(
+      summary = "Прогресс перешифрования",
+      description = "Возвращает состояние задачи и число обработанных карт."
+  )
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Состояние получено",
+          content = @Content(mediaType = "application/json",
+              schema = @Schema(implementation = PanReencryptionStatusResponse.class))),
+      @ApiResponse(responseCode = "403", description = "Доступ запрещён")
+  })
+  @GetMapping
+  @Tag(name = "Admin")
+  public ResponseEntity<PanReencryptionStatusResponse> status() {
+    return ResponseEntity.ok(panReencryptionService.status());
+  }
+}
@@ -0,0 +1,48 @@
+package com.example.bankcards.controller.admin;
+
+import com.example.bankcards.dto.response.MessageResponse;
+import com.example.bankcards.service.ReferenceDataService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import io.swagger.v3.oas.annotations.tags.Tags;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/admin/reference-data")
+@RequiredArgsConstructor
+@Tags(value = {
+    @Tag(name = "ReferenceData", description = "Справочники статусов карт и ролей"),
+    @Tag(name = "Admin")
+})
+public class ReferenceDataAdminController {
+
+  private final ReferenceDataService referenceDataService;
+
+  @Operation(
+      summary = "Перечитать справочники",
+      description = "Администратор перечитывает статусы карт и роли из базы после их изменения."
+  )
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Справочники обновлены",
+          content = @Content(mediaType = "application/json",
+              schema = @Schema(implementation = MessageResponse.class))),
+      @ApiResponse(responseCode = "403", description = "Доступ запрещён")
+  })
+  @PostMapping("/refresh")
+  @PreAuthorize("hasRole('ADMIN')")
+  @Tag(name = "Admin")
+  public ResponseEntity<MessageResponse> refresh() {
+
+    referenceDataService.refresh();
+    return ResponseEntity.ok(new MessageResponse("Справочники обновлены"));
+  }
+}
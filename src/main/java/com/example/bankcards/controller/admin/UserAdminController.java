@@ -1,9 +1,11 @@
 package com.example.bankcards.controller.admin;
 
 import com.example.bankcards.dto.request.UserRoleUpdateRequest;
+import com.example.bankcards.dto.response.CursorPageResponse;
 import com.example.bankcards.dto.response.MessageResponse;
 import com.example.bankcards.dto.response.UserResponse;
 import com.example.bankcards.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,10 +15,13 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.tags.Tags;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -24,8 +29,10 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/v1/admin/users")
@@ -38,6 +45,8 @@ public class UserAdminController {
 
   private final UserService userService;
 
+  private final ObjectMapper objectMapper;
+
   @Operation(
       summary = "Получить список всех пользователей",
       description = "Администратор с ролью ADMIN может получить список всех пользователей."
@@ -56,6 +65,55 @@ public class UserAdminController {
     return ResponseEntity.ok(userService.getAllUsers());
   }
 
+  @Operation(
+      summary = "Список пользователей с курсорной пагинацией",
+      description = "Администратор получает пользователей от новых к старым без подсчёта "
+          + "общего количества. Для следующей страницы передаётся nextCursor из предыдущего ответа."
+  )
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Страница пользователей получена"),
+      @ApiResponse(responseCode = "400", description = "Некорректный курсор или размер страницы"),
+      @ApiResponse(responseCode = "403", description = "Доступ запрещён")
+  })
+  @GetMapping("/scroll")
+  @PreAuthorize("hasRole('ADMIN')")
+  @Tag(name = "Admin")
+  public CursorPageResponse<UserResponse> scrollUsers(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "20") int size
+  ) {
+
+    return userService.scrollUsers(cursor, size);
+  }
+
+  @Operation(
+      summary = "Выгрузка всех пользователей потоком",
+      description = "Администратор получает всех пользователей построчно в формате NDJSON. "
+          + "Строки читаются курсором и пишутся в ответ по мере чтения."
+  )
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Поток пользователей",
+          content = @Content(mediaType = "application/x-ndjson",
+              schema = @Schema(implementation = UserResponse.class))),
+      @ApiResponse(responseCode = "403", description = "Доступ запрещён")
+  })
+  @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  @PreAuthorize("hasRole('ADMIN')")
+  @Tag(name = "Admin")
+  public ResponseEntity<StreamingResponseBody> streamUsers() {
+
+    StreamingResponseBody body = out -> userService.streamUsers(user -> {
+      try {
+        out.write(objectMapper.writeValueAsBytes(user));
+        out.write('\n');
+      } catch (IOException ex) {
+        throw new UncheckedIOException(ex);
+      }
+    });
+
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+  }
+
   @Operation(
       summary = "Получить пользователя по ID",
       description = "Администратор может получить информацию о пользователе по его ID."
@@ -2,6 +2,7 @@ package com.example.bankcards.controller.user;
 
 import com.example.bankcards.dto.response.BalanceResponse;
 import com.example.bankcards.dto.response.CardResponse;
+import com.example.bankcards.dto.response.CursorPageResponse;
 import com.example.bankcards.dto.response.MessageResponse;
 import com.example.bankcards.service.CardService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -102,6 +103,27 @@ public class CardUserController {
     return cardService.getUserCards(authentication.getName(), search, pageable);
   }
 
+  @Operation(
+      summary = "Просмотр своих карт с курсорной пагинацией",
+      description = "Пользователь с ролью USER получает свои карты от новых к старым. "
+          + "Для следующей страницы передаётся nextCursor из предыдущего ответа."
+  )
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Страница карт получена"),
+      @ApiResponse(responseCode = "400", description = "Некорректный курсор или размер страницы")
+  })
+  @GetMapping("/my_cards/scroll")
+  @PreAuthorize("hasRole('USER')")
+  @Tag(name = "User")
+  public CursorPageResponse<CardResponse> scrollMyCards(
+      Authentication authentication,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "20") int size
+  ) {
+
+    return cardService.scrollUserCards(authentication.getName(), cursor, size);
+  }
+
 
 
 }
@@ -1,9 +1,12 @@
 package com.example.bankcards.controller.user;
 
+import com.example.bankcards.dto.request.BatchTransferRequest;
 import com.example.bankcards.dto.request.TransferRequest;
+import com.example.bankcards.dto.response.BatchTransferResponse;
 import com.example.bankcards.dto.response.TransactionResponse;
 import com.example.bankcards.service.TransactionService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -18,6 +21,7 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -34,7 +38,7 @@ public class TransactionController {
       description = "Пользователь с ролью USER может перевести средства между своими картами."
   )
   @ApiResponses(value = {
-      @ApiResponse(responseCode = "201", description = "Транзакция успешно создана",
+      @ApiResponse(responseCode = "201", description = "Транзакция успешно создана или возвращён результат запроса с тем же Idempotency-Key",
           content = @Content(mediaType = "application/json",
               schema = @Schema(implementation = TransactionResponse.class))),
       @ApiResponse(responseCode = "400", description = "Некорректные данные запроса"),
@@ -46,9 +50,34 @@ public class TransactionController {
   @PreAuthorize("hasRole('USER')")
   @Tag(name = "User")
   public ResponseEntity<TransactionResponse> transfer(@RequestBody @Valid TransferRequest request,
+      @Parameter(description = "Ключ идемпотентности: повтор запроса с тем же ключом не выполняет перевод повторно")
+      @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
       @AuthenticationPrincipal UserDetails userDetails) {
 
     return ResponseEntity.status(HttpStatus.CREATED)
-        .body(transactionService.transfer(request, userDetails.getUsername()));
+        .body(transactionService.transfer(request, userDetails.getUsername(), idempotencyKey));
+  }
+
+  @Operation(
+      summary = "Пакетный перевод средств между своими картами",
+      description = "Выполняет список переводов в одной транзакции. Все карты пакета блокируются "
+          + "одним запросом, результат возвращается по каждому переводу."
+  )
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Пакет обработан",
+          content = @Content(mediaType = "application/json",
+              schema = @Schema(implementation = BatchTransferResponse.class))),
+      @ApiResponse(responseCode = "400", description = "Некорректные данные запроса"),
+      @ApiResponse(responseCode = "403", description = "Доступ запрещён")
+  })
+  @PostMapping("/transfer/batch")
+  @PreAuthorize("hasRole('USER')")
+  @Tag(name = "User")
+  public ResponseEntity<BatchTransferResponse> transferBatch(
+      @RequestBody @Valid BatchTransferRequest request,
+      @AuthenticationPrincipal UserDetails userDetails) {
+
+    return ResponseEntity.ok(
+        transactionService.transferBatch(request.transfers(), userDetails.getUsername()));
   }
 }
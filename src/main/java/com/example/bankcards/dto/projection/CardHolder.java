@@ -0,0 +1,5 @@
+package com.example.bankcards.dto.projection;
+
+import java.util.UUID;
+
+public record CardHolder(UUID id, String fullName) {}
@@ -0,0 +1,17 @@
+package com.example.bankcards.dto.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public record CardListItem(
+    UUID id,
+    String lastFourDigits,
+    String holderName,
+    LocalDate expiryDate,
+    BigDecimal balance,
+    String status,
+    UUID userId,
+    OffsetDateTime createdAt
+) {}
@@ -0,0 +1,5 @@
+package com.example.bankcards.dto.projection;
+
+import java.util.UUID;
+
+public record EncryptedPan(UUID id, String numberEncrypted, String numberHash) {}
@@ -0,0 +1,8 @@
+package com.example.bankcards.dto.projection;
+
+import java.time.OffsetDateTime;
+
+public record TokenRevocation(
+    String username,
+    OffsetDateTime tokensValidAfter
+) {}
@@ -0,0 +1,12 @@
+package com.example.bankcards.dto.projection;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public record UserListItem(
+    UUID id,
+    String username,
+    String role,
+    boolean enabled,
+    OffsetDateTime createdAt
+) {}
@@ -0,0 +1,12 @@
+package com.example.bankcards.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public record BatchTransferRequest(
+    @NotEmpty(message = "Список переводов не может быть пустым")
+    @Size(max = 1000, message = "В пакете может быть не более 1000 переводов")
+    List<@Valid TransferRequest> transfers
+) {}
@@ -0,0 +1,13 @@
+package com.example.bankcards.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import java.util.UUID;
+
+public record BulkCreateCardRequest(
+    @NotEmpty(message = "Список пользователей не может быть пустым")
+    @Size(max = 50000, message = "За один запрос можно выпустить не более 50000 карт")
+    List<@NotNull(message = "ID пользователя не может быть пустым") UUID> userIds
+) {}
@@ -0,0 +1,10 @@
+package com.example.bankcards.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+
+public record CardNumberLookupRequest(
+    @NotBlank(message = "Номер карты не может быть пустым")
+    @Pattern(regexp = "\\d{16}", message = "Номер карты должен состоять из 16 цифр")
+    String cardNumber
+) {}
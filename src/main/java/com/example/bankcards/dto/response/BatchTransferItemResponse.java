@@ -0,0 +1,11 @@
+package com.example.bankcards.dto.response;
+
+import com.example.bankcards.entity.enums.TransactionStatus;
+import java.util.UUID;
+
+public record BatchTransferItemResponse(
+    int index,
+    UUID transactionId,
+    TransactionStatus status,
+    String message
+) {}
@@ -0,0 +1,9 @@
+package com.example.bankcards.dto.response;
+
+import java.util.List;
+
+public record BatchTransferResponse(
+    int succeeded,
+    int failed,
+    List<BatchTransferItemResponse> items
+) {}
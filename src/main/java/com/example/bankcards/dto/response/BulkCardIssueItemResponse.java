@@ -0,0 +1,13 @@
+package com.example.bankcards.dto.response;
+
+import com.example.bankcards.entity.enums.CardIssueStatus;
+import java.util.UUID;
+
+public record BulkCardIssueItemResponse(
+    int index,
+    UUID userId,
+    CardIssueStatus status,
+    UUID cardId,
+    String numberEncrypted,
+    String message
+) {}
@@ -0,0 +1,27 @@
+package com.example.bankcards.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public record CardExportRowResponse(
+
+    UUID id,
+
+    String maskedNumber,
+
+    String holderName,
+
+    LocalDate expiryDate,
+
+    BigDecimal balance,
+
+    String status,
+
+    UUID userId,
+
+    OffsetDateTime createdAt
+) {
+
+}
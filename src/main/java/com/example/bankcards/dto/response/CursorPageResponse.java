@@ -0,0 +1,9 @@
+package com.example.bankcards.dto.response;
+
+import java.util.List;
+
+public record CursorPageResponse<T>(
+    List<T> content,
+    String nextCursor,
+    boolean hasNext
+) {}
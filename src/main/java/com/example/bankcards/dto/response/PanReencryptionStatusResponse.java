@@ -0,0 +1,14 @@
+package com.example.bankcards.dto.response;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public record PanReencryptionStatusResponse(
+    boolean running,
+    int primaryKeyId,
+    UUID lastCardId,
+    long scanned,
+    long reencrypted,
+    long failed,
+    OffsetDateTime completedAt
+) {}
@@ -1,5 +1,6 @@
 package com.example.bankcards.entity;
 
+import com.example.bankcards.util.UuidV7Generator;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -20,6 +21,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.annotations.UuidGenerator;
 
 @Entity
 @Table(name = "users")
@@ -32,6 +34,7 @@ public class BankUser {
 
   @Id
   @GeneratedValue
+  @UuidGenerator(algorithm = UuidV7Generator.class)
   @Column(columnDefinition = "UUID")
   private UUID id;
 
@@ -56,6 +59,9 @@ public class BankUser {
   @Column(nullable = false)
   private Boolean enabled = true;
 
+  @Column(name = "tokens_valid_after")
+  private OffsetDateTime tokensValidAfter;
+
   @CreationTimestamp
   @Column(name = "created_at", nullable = false, updatable = false)
   private OffsetDateTime createdAt;
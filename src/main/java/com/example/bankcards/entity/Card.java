@@ -1,5 +1,6 @@
 package com.example.bankcards.entity;
 
+import com.example.bankcards.util.UuidV7Generator;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Future;
@@ -17,6 +18,7 @@ import java.time.LocalDate;
 import lombok.Setter;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.annotations.UuidGenerator;
 
 @Entity
 @Table(name = "cards")
@@ -29,6 +31,7 @@ public class Card {
 
     @Id
     @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     @Column(columnDefinition = "UUID")
     private UUID id;
 
@@ -36,6 +39,9 @@ public class Card {
     @Column(name = "number_encrypted", nullable = false, unique = true)
     private String numberEncrypted;
 
+    @Column(name = "number_hash", length = 64, unique = true)
+    private String numberHash;
+
     @Column(name = "last_four_digits", length = 4, nullable = false)
     private String lastFourDigits;
 
@@ -69,4 +75,8 @@ public class Card {
     @UpdateTimestamp
     @Column(name = "updated_at", nullable = false)
     private OffsetDateTime updatedAt;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
@@ -0,0 +1,61 @@
+package com.example.bankcards.entity;
+
+import com.example.bankcards.entity.enums.TransactionStatus;
+import com.example.bankcards.util.UuidV7Generator;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UuidGenerator;
+
+@Entity
+@Table(name = "idempotent_transfers", uniqueConstraints = @UniqueConstraint(
+    name = "uq_idempotent_transfers_user_key", columnNames = {"username", "idempotency_key"}))
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotentTransfer {
+
+  @Id
+  @GeneratedValue
+  @UuidGenerator(algorithm = UuidV7Generator.class)
+  @Column(columnDefinition = "UUID")
+  private UUID id;
+
+  @Column(nullable = false)
+  private String username;
+
+  @Column(name = "idempotency_key", nullable = false, length = 100)
+  private String idempotencyKey;
+
+  @Column(name = "request_hash", nullable = false, length = 64)
+  private String requestHash;
+
+  @Column(name = "transaction_id", nullable = false)
+  private UUID transactionId;
+
+  @Column(nullable = false, length = 20)
+  @Enumerated(EnumType.STRING)
+  private TransactionStatus status;
+
+  @Column
+  private String message;
+
+  @CreationTimestamp
+  @Column(name = "created_at", nullable = false, updatable = false)
+  private OffsetDateTime createdAt;
+}
@@ -0,0 +1,50 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.UpdateTimestamp;
+
+@Entity
+@Table(name = "pan_reencryption_checkpoints")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PanReencryptionCheckpoint {
+
+  @Id
+  @Column(name = "job_name", length = 50)
+  private String jobName;
+
+  @Column(name = "primary_key_id", nullable = false)
+  private Integer primaryKeyId;
+
+  @Column(name = "last_card_id", columnDefinition = "UUID")
+  private UUID lastCardId;
+
+  @Column(nullable = false)
+  private long scanned;
+
+  @Column(nullable = false)
+  private long reencrypted;
+
+  @Column(nullable = false)
+  private long failed;
+
+  @Column(name = "completed_at")
+  private OffsetDateTime completedAt;
+
+  @UpdateTimestamp
+  @Column(name = "updated_at", nullable = false)
+  private OffsetDateTime updatedAt;
+}
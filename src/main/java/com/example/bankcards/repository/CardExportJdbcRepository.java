@@ -0,0 +1,45 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.dto.projection.CardListItem;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Выгрузка всей картотеки однонаправленным курсором. PostgreSQL читает строки порциями
+ * по fetchSize только внутри транзакции, поэтому вызывающий код должен её открыть.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CardExportJdbcRepository {
+
+  private static final String EXPORT_SQL = """
+      SELECT c.id, c.last_four_digits, c.holder_name, c.expiry_date, c.balance,
+             s.name AS status, c.user_id, c.created_at
+      FROM cards c
+      JOIN card_statuses s ON s.id = c.status_id
+      """;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public void forEachCard(int fetchSize, Consumer<CardListItem> action) {
+    jdbcTemplate.query(con -> {
+      PreparedStatement ps = con.prepareStatement(EXPORT_SQL, ResultSet.TYPE_FORWARD_ONLY,
+          ResultSet.CONCUR_READ_ONLY);
+      ps.setFetchSize(fetchSize);
+      return ps;
+    }, rs -> {
+      action.accept(new CardListItem(rs.getObject("id", UUID.class),
+          rs.getString("last_four_digits"), rs.getString("holder_name"),
+          rs.getObject("expiry_date", LocalDate.class), rs.getBigDecimal("balance"),
+          rs.getString("status"), rs.getObject("user_id", UUID.class),
+          rs.getObject("created_at", OffsetDateTime.class)));
+    });
+  }
+}
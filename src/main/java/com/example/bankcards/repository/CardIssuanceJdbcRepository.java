@@ -0,0 +1,58 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.dto.projection.CardHolder;
+import com.example.bankcards.entity.Card;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Запросы массового выпуска карт. Идентификаторы передаются одним массивом через
+ * {@code = ANY(?)}, поэтому число пользователей не упирается в лимит параметров JDBC,
+ * а карты вставляются JDBC-батчем без загрузки сущностей в контекст Hibernate.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CardIssuanceJdbcRepository {
+
+  private static final String INSERT_SQL = """
+      INSERT INTO cards (id, number_encrypted, number_hash, last_four_digits, holder_name,
+                         expiry_date, status_id, balance, user_id)
+      VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+      """;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public List<CardHolder> findCardHolders(Collection<UUID> userIds) {
+    return jdbcTemplate.query("SELECT id, full_name FROM users WHERE id = ANY(?)",
+        ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", userIds.toArray())),
+        (rs, rowNum) -> new CardHolder(rs.getObject("id", UUID.class),
+            rs.getString("full_name")));
+  }
+
+  public Set<String> findExistingNumberHashes(Collection<String> numberHashes) {
+    Set<String> existing = new HashSet<>();
+    jdbcTemplate.query("SELECT number_hash FROM cards WHERE number_hash = ANY(?)",
+        ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", numberHashes.toArray())),
+        rs -> {
+          existing.add(rs.getString("number_hash"));
+        });
+    return existing;
+  }
+
+  public void insertCards(List<Card> cards) {
+    List<Object[]> rows = new ArrayList<>(cards.size());
+    for (Card card : cards) {
+      rows.add(new Object[]{card.getId(), card.getNumberEncrypted(), card.getNumberHash(),
+          card.getLastFourDigits(), card.getHolderName(), card.getExpiryDate(),
+          card.getStatus().getId(), card.getBalance(), card.getBankUser().getId()});
+    }
+    jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+  }
+}
@@ -1,11 +1,21 @@
 package com.example.bankcards.repository;
 
+import com.example.bankcards.dto.projection.CardListItem;
+import com.example.bankcards.dto.projection.EncryptedPan;
 import com.example.bankcards.entity.Card;
+import jakarta.persistence.LockModeType;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -14,24 +24,123 @@ import org.springframework.stereotype.Repository;
 public interface CardRepository extends JpaRepository<Card, UUID> {
 
 
-  @Query("""
-        SELECT c FROM Card c 
-        JOIN FETCH c.bankUser bu
-        JOIN FETCH c.status s
-        WHERE bu.username = :username 
-        AND (:search IS NULL OR c.lastFourDigits LIKE %:search%)
+  @Query(value = """
+        SELECT new com.example.bankcards.dto.projection.CardListItem(
+            c.id, c.lastFourDigits, c.holderName, c.expiryDate, c.balance, s.name, bu.id,
+            c.createdAt)
+        FROM Card c
+        JOIN c.bankUser bu
+        JOIN c.status s
+        WHERE bu.username = :username
+        AND c.lastFourDigits LIKE %:search%
+    """, countQuery = """
+        SELECT count(c) FROM Card c
+        WHERE c.bankUser.username = :username
+        AND c.lastFourDigits LIKE %:search%
     """)
-  Page<Card> findByUsernameAndSearch(@Param("username") String username,
+  Page<CardListItem> findByUsernameAndSearch(@Param("username") String username,
       @Param("search") String search,
       Pageable pageable);
 
+  @Query(value = """
+        SELECT new com.example.bankcards.dto.projection.CardListItem(
+            c.id, c.lastFourDigits, c.holderName, c.expiryDate, c.balance, s.name, bu.id,
+            c.createdAt)
+        FROM Card c
+        JOIN c.bankUser bu
+        JOIN c.status s
+        WHERE bu.username = :username
+    """, countQuery = """
+        SELECT count(c) FROM Card c
+        WHERE c.bankUser.username = :username
+    """)
+  Page<CardListItem> findByUsername(@Param("username") String username, Pageable pageable);
+
+  @Query(value = """
+        SELECT new com.example.bankcards.dto.projection.CardListItem(
+            c.id, c.lastFourDigits, c.holderName, c.expiryDate, c.balance, s.name, c.bankUser.id,
+            c.createdAt)
+        FROM Card c
+        JOIN c.status s
+        WHERE c.lastFourDigits LIKE %:search%
+    """, countQuery = """
+        SELECT count(c) FROM Card c
+        WHERE c.lastFourDigits LIKE %:search%
+    """)
+  Page<CardListItem> findAllWithSearch(@Param("search") String search, Pageable pageable);
+
+  @Query(value = """
+        SELECT new com.example.bankcards.dto.projection.CardListItem(
+            c.id, c.lastFourDigits, c.holderName, c.expiryDate, c.balance, s.name, c.bankUser.id,
+            c.createdAt)
+        FROM Card c
+        JOIN c.status s
+    """, countQuery = """
+        SELECT count(c) FROM Card c
+    """)
+  Page<CardListItem> findAllListItems(Pageable pageable);
+
   @Query("""
-        SELECT c FROM Card c 
-        JOIN FETCH c.bankUser bu
-        JOIN FETCH c.status s
-        WHERE (:search IS NULL OR c.lastFourDigits LIKE %:search%)
+        SELECT new com.example.bankcards.dto.projection.CardListItem(
+            c.id, c.lastFourDigits, c.holderName, c.expiryDate, c.balance, s.name, bu.id,
+            c.createdAt)
+        FROM Card c
+        JOIN c.bankUser bu
+        JOIN c.status s
+        WHERE bu.username = :username
+        ORDER BY c.createdAt DESC, c.id DESC
+    """)
+  List<CardListItem> findFirstPageByUsername(@Param("username") String username, Limit limit);
+
+  @Query("""
+        SELECT new com.example.bankcards.dto.projection.CardListItem(
+            c.id, c.lastFourDigits, c.holderName, c.expiryDate, c.balance, s.name, bu.id,
+            c.createdAt)
+        FROM Card c
+        JOIN c.bankUser bu
+        JOIN c.status s
+        WHERE bu.username = :username
+        AND c.createdAt <= :createdAt
+        AND (c.createdAt < :createdAt OR c.id < :id)
+        ORDER BY c.createdAt DESC, c.id DESC
+    """)
+  List<CardListItem> findNextPageByUsername(@Param("username") String username,
+      @Param("createdAt") OffsetDateTime createdAt,
+      @Param("id") UUID id,
+      Limit limit);
+
+  @Query("""
+        SELECT new com.example.bankcards.dto.projection.CardListItem(
+            c.id, c.lastFourDigits, c.holderName, c.expiryDate, c.balance, s.name, c.bankUser.id,
+            c.createdAt)
+        FROM Card c
+        JOIN c.status s
+        ORDER BY c.createdAt DESC, c.id DESC
+    """)
+  List<CardListItem> findFirstPage(Limit limit);
+
+  @Query("""
+        SELECT new com.example.bankcards.dto.projection.CardListItem(
+            c.id, c.lastFourDigits, c.holderName, c.expiryDate, c.balance, s.name, c.bankUser.id,
+            c.createdAt)
+        FROM Card c
+        JOIN c.status s
+        WHERE c.createdAt <= :createdAt
+        AND (c.createdAt < :createdAt OR c.id < :id)
+        ORDER BY c.createdAt DESC, c.id DESC
+    """)
+  List<CardListItem> findNextPage(@Param("createdAt") OffsetDateTime createdAt,
+      @Param("id") UUID id,
+      Limit limit);
+
+  @Query("""
+        SELECT new com.example.bankcards.dto.projection.EncryptedPan(
+            c.id, c.numberEncrypted, c.numberHash)
+        FROM Card c
+        WHERE c.id > :afterId
+        ORDER BY c.id
     """)
-  Page<Card> findAllWithSearch(@Param("search") String search, Pageable pageable);
+  List<EncryptedPan> findEncryptedPansAfter(@Param("afterId") UUID afterId, Limit limit);
 
   @Query("""
         SELECT c FROM Card c 
@@ -40,5 +149,48 @@ public interface CardRepository extends JpaRepository<Card, UUID> {
         WHERE c.id = :id
     """)
   Optional<Card> findByIdWithUserAndStatus(@Param("id") UUID id);
+
+  @Query("""
+        SELECT c FROM Card c
+        JOIN FETCH c.bankUser bu
+        JOIN FETCH c.status s
+        WHERE c.numberHash = :numberHash
+    """)
+  Optional<Card> findByNumberHash(@Param("numberHash") String numberHash);
+
+  boolean existsByNumberHash(String numberHash);
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("""
+        SELECT c FROM Card c
+        JOIN FETCH c.bankUser bu
+        WHERE c.id IN :ids
+        ORDER BY c.id
+    """)
+  List<Card> findAllByIdForUpdate(@Param("ids") Collection<UUID> ids);
+
+  @Query("""
+        SELECT c.id FROM Card c
+        WHERE c.id IN :ids
+        AND c.bankUser.username = :username
+    """)
+  List<UUID> findIdsOwnedBy(@Param("ids") Collection<UUID> ids,
+      @Param("username") String username);
+
+  @Modifying
+  @Query(value = """
+        UPDATE cards
+        SET balance = balance - :amount, version = version + 1, updated_at = now()
+        WHERE id = :id AND balance >= :amount
+    """, nativeQuery = true)
+  int debit(@Param("id") UUID id, @Param("amount") BigDecimal amount);
+
+  @Modifying
+  @Query(value = """
+        UPDATE cards
+        SET balance = balance + :amount, version = version + 1, updated_at = now()
+        WHERE id = :id
+    """, nativeQuery = true)
+  int credit(@Param("id") UUID id, @Param("amount") BigDecimal amount);
 }
 
@@ -0,0 +1,14 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.IdempotentTransfer;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface IdempotentTransferRepository extends JpaRepository<IdempotentTransfer, UUID> {
+
+  Optional<IdempotentTransfer> findByUsernameAndIdempotencyKey(String username,
+      String idempotencyKey);
+}
@@ -0,0 +1,41 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.dto.projection.UserListItem;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Выгрузка всех пользователей однонаправленным курсором. PostgreSQL читает строки порциями
+ * по fetchSize только внутри транзакции, поэтому вызывающий код должен её открыть.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserExportJdbcRepository {
+
+  private static final String EXPORT_SQL = """
+      SELECT u.id, u.username, r.name AS role, u.enabled, u.created_at
+      FROM users u
+      JOIN roles r ON r.id = u.role_id
+      """;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public void forEachUser(int fetchSize, Consumer<UserListItem> action) {
+    jdbcTemplate.query(con -> {
+      PreparedStatement ps = con.prepareStatement(EXPORT_SQL, ResultSet.TYPE_FORWARD_ONLY,
+          ResultSet.CONCUR_READ_ONLY);
+      ps.setFetchSize(fetchSize);
+      return ps;
+    }, rs -> {
+      action.accept(new UserListItem(rs.getObject("id", UUID.class), rs.getString("username"),
+          rs.getString("role"), rs.getBoolean("enabled"),
+          rs.getObject("created_at", OffsetDateTime.class)));
+    });
+  }
+}
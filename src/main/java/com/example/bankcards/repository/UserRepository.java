@@ -1,9 +1,17 @@
 package com.example.bankcards.repository;
 
+import com.example.bankcards.dto.projection.TokenRevocation;
+import com.example.bankcards.dto.projection.UserListItem;
 import com.example.bankcards.entity.BankUser;
+import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -12,4 +20,41 @@ public interface UserRepository extends JpaRepository<BankUser, UUID> {
   Optional<BankUser> findByUsername(String userName);
 
   boolean existsByUsername(String userName);
+
+  @Query("SELECT u.username FROM BankUser u WHERE u.enabled = false")
+  List<String> findBlockedUsernames();
+
+  @Query("""
+        SELECT new com.example.bankcards.dto.projection.TokenRevocation(
+            u.username, u.tokensValidAfter)
+        FROM BankUser u
+        WHERE u.tokensValidAfter > :since
+    """)
+  List<TokenRevocation> findTokenRevocationsSince(@Param("since") OffsetDateTime since);
+
+  @Modifying
+  @Query("UPDATE BankUser u SET u.password = :password WHERE u.username = :username")
+  int updatePassword(@Param("username") String username, @Param("password") String password);
+
+  @Query("""
+        SELECT new com.example.bankcards.dto.projection.UserListItem(
+            u.id, u.username, r.name, u.enabled, u.createdAt)
+        FROM BankUser u
+        JOIN u.role r
+        ORDER BY u.createdAt DESC, u.id DESC
+    """)
+  List<UserListItem> findFirstPage(Limit limit);
+
+  @Query("""
+        SELECT new com.example.bankcards.dto.projection.UserListItem(
+            u.id, u.username, r.name, u.enabled, u.createdAt)
+        FROM BankUser u
+        JOIN u.role r
+        WHERE u.createdAt <= :createdAt
+        AND (u.createdAt < :createdAt OR u.id < :id)
+        ORDER BY u.createdAt DESC, u.id DESC
+    """)
+  List<UserListItem> findNextPage(@Param("createdAt") OffsetDateTime createdAt,
+      @Param("id") UUID id,
+      Limit limit);
 }
\ No newline at end of file
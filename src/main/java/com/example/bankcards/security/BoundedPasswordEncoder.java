@@ -0,0 +1,117 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.config.AuthProperties;
+import com.example.bankcards.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Выполняет хеширование и проверку паролей в отдельном ограниченном пуле, чтобы всплеск входов
+ * не занимал все потоки Tomcat. При заполненной очереди запрос сразу отклоняется с 429.
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+  private final PasswordEncoder delegate;
+
+  private final ThreadPoolExecutor executor;
+
+  private final Duration timeout;
+
+  private final Timer encodeTimer;
+
+  private final Timer matchesTimer;
+
+  private final Counter rejectedCounter;
+
+  public BoundedPasswordEncoder(PasswordEncoder delegate,
+      AuthProperties.PasswordHashing properties, MeterRegistry meterRegistry) {
+    this.delegate = delegate;
+    this.timeout = properties.timeout();
+    this.executor = new ThreadPoolExecutor(properties.threads(), properties.threads(),
+        0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(properties.queueCapacity()),
+        new CustomizableThreadFactory("password-hash-"),
+        new ThreadPoolExecutor.AbortPolicy());
+    this.encodeTimer = Timer.builder("bank.auth.password.hash")
+        .description("Время хеширования и проверки паролей")
+        .tag("operation", "encode")
+        .register(meterRegistry);
+    this.matchesTimer = Timer.builder("bank.auth.password.hash")
+        .description("Время хеширования и проверки паролей")
+        .tag("operation", "matches")
+        .register(meterRegistry);
+    this.rejectedCounter = Counter.builder("bank.auth.password.rejected")
+        .description("Запросы, отклонённые из-за переполнения очереди хеширования")
+        .register(meterRegistry);
+    Gauge.builder("bank.auth.password.queue", executor, e -> e.getQueue().size())
+        .description("Задачи, ожидающие хеширования пароля")
+        .register(meterRegistry);
+    Gauge.builder("bank.auth.password.active", executor, ThreadPoolExecutor::getActiveCount)
+        .description("Потоки, занятые хешированием пароля")
+        .register(meterRegistry);
+  }
+
+  @Override
+  public String encode(CharSequence rawPassword) {
+    return submit(() -> encodeTimer.record(() -> delegate.encode(rawPassword)));
+  }
+
+  @Override
+  public boolean matches(CharSequence rawPassword, String encodedPassword) {
+    return submit(() -> matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword)));
+  }
+
+  @Override
+  public boolean upgradeEncoding(String encodedPassword) {
+    return delegate.upgradeEncoding(encodedPassword);
+  }
+
+  @Override
+  public void close() {
+    executor.shutdown();
+  }
+
+  private <T> T submit(Supplier<T> task) {
+
+    Future<T> future;
+    try {
+      future = executor.submit(task::get);
+    } catch (RejectedExecutionException ex) {
+      rejectedCounter.increment();
+      log.warn("Очередь хеширования паролей переполнена, запрос отклонён");
+      throw new TooManyRequestsException("Слишком много запросов авторизации, повторите позже");
+    }
+
+    try {
+      return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (TimeoutException ex) {
+      future.cancel(true);
+      rejectedCounter.increment();
+      throw new TooManyRequestsException("Слишком много запросов авторизации, повторите позже");
+    } catch (InterruptedException ex) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Хеширование пароля прервано", ex);
+    } catch (ExecutionException ex) {
+      if (ex.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException("Ошибка хеширования пароля", ex.getCause());
+    }
+  }
+}
@@ -1,5 +1,7 @@
 package com.example.bankcards.security;
 
+import com.example.bankcards.config.AuthProperties;
+import com.example.bankcards.config.AuthProperties.Mode;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,6 +12,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -25,15 +28,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
   private final UserDetailsServiceImpl userDetailsService;
 
+  private final UserRevocationRegistry userRevocationRegistry;
+
+  private final AuthProperties authProperties;
+
   @Override
   protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
       FilterChain filterChain) throws ServletException, IOException {
 
-    extractJwtFromRequest(request).ifPresent(jwt -> {
-      if (jwtToken.validateToken(jwt)) {
-        authenticateUser(jwt, request);
-      }
-    });
+    extractJwtFromRequest(request)
+        .flatMap(jwtToken::parse)
+        .ifPresent(claims -> authenticateUser(claims, request));
 
     filterChain.doFilter(request, response);
   }
@@ -58,12 +63,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         .filter(StringUtils::hasText);
   }
 
-  private void authenticateUser(String jwt, HttpServletRequest request) {
+  private void authenticateUser(JwtClaims claims, HttpServletRequest request) {
     try {
-      String username = jwtToken.getUsernameFromToken(jwt);
+      String username = claims.username();
 
       if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        UserDetails userDetails = authProperties.mode() == Mode.STATELESS
+            ? statelessUser(claims)
+            : userDetailsService.loadUserByUsername(username);
+
+        if (userDetails == null || !userDetails.isEnabled()) {
+          log.debug("Token of blocked user {} rejected", username);
+          return;
+        }
 
         UsernamePasswordAuthenticationToken authentication =
             new UsernamePasswordAuthenticationToken(
@@ -82,4 +94,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     }
   }
 
+  private UserDetails statelessUser(JwtClaims claims) {
+
+    if (userRevocationRegistry.isRevoked(claims)) {
+      return null;
+    }
+
+    return User.withUsername(claims.username())
+        .password("")
+        .authorities(claims.roles().toArray(String[]::new))
+        .build();
+  }
+
 }
\ No newline at end of file
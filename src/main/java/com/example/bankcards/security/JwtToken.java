@@ -1,17 +1,30 @@
 package com.example.bankcards.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.security.Keys;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 import javax.crypto.SecretKey;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -21,18 +34,40 @@ import org.springframework.stereotype.Component;
 @Slf4j
 public class JwtToken {
 
-  @Value("${jwt.secret}")
-  private String jwtSecret;
+  private final Long jwtExpiration;
 
-  @Value("${jwt.expiration}")
-  private Long jwtExpiration;
+  private final Clock clock;
 
-  private SecretKey getSigningKey() {
-    return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+  private final SecretKey signingKey;
+
+  private final JwtParser parser;
+
+  private final Cache<ByteBuffer, JwtClaims> verifiedTokens;
+
+  @Autowired
+  public JwtToken(@Value("${jwt.secret}") String jwtSecret,
+      @Value("${jwt.expiration}") Long jwtExpiration,
+      @Value("${jwt.verified-cache-size:10000}") long verifiedCacheSize) {
+    this(jwtSecret, jwtExpiration, verifiedCacheSize, Clock.systemUTC());
+  }
+
+  JwtToken(String jwtSecret, Long jwtExpiration, long verifiedCacheSize, Clock clock) {
+    this.jwtExpiration = jwtExpiration;
+    this.clock = clock;
+    this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    this.parser = Jwts.parserBuilder()
+        .setSigningKey(signingKey)
+        .setClock(() -> Date.from(clock.instant()))
+        .build();
+    this.verifiedTokens = Caffeine.newBuilder()
+        .maximumSize(verifiedCacheSize)
+        .expireAfter(Expiry.creating((ByteBuffer key, JwtClaims claims) ->
+            Duration.between(clock.instant(), claims.expiresAt())))
+        .build();
   }
 
   public String generatorToken(UserDetails userDetails) {
-    Date now = new Date();
+    Date now = Date.from(clock.instant());
     Date expiryDate = new Date(now.getTime() + jwtExpiration);
 
     List<String> roles = userDetails.getAuthorities().stream()
@@ -44,55 +79,78 @@ public class JwtToken {
         .claim("roles", roles)
         .setIssuedAt(now)
         .setExpiration(expiryDate)
-        .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+        .signWith(signingKey, SignatureAlgorithm.HS256)
         .compact();
   }
 
-  public String getUsernameFromToken(String token) {
-    try {
-      return Jwts.parserBuilder()
-          .setSigningKey(getSigningKey())
-          .build()
-          .parseClaimsJws(token)
-          .getBody()
-          .getSubject();
-    } catch (JwtException e) {
-      log.error("Error extracting username from token: {}", e.getMessage());
-      return null;
+  public Optional<JwtClaims> parse(String token) {
+    if (token == null) {
+      return Optional.empty();
+    }
+
+    ByteBuffer key = tokenHash(token);
+    JwtClaims cached = verifiedTokens.getIfPresent(key);
+    if (cached != null) {
+      if (cached.expiresAt().isAfter(clock.instant())) {
+        return Optional.of(cached);
+      }
+      verifiedTokens.invalidate(key);
     }
+
+    Optional<JwtClaims> verified = verify(token);
+    verified
+        .filter(claims -> claims.expiresAt() != null)
+        .ifPresent(claims -> verifiedTokens.put(key, claims));
+
+    return verified;
   }
 
-  public boolean validateToken(String token) {
+  private Optional<JwtClaims> verify(String token) {
     try {
-      Jwts.parserBuilder()
-          .setSigningKey(getSigningKey())
-          .build()
-          .parseClaimsJws(token);
-      return true;
+      Claims claims = parser.parseClaimsJws(token).getBody();
+      List<?> roles = claims.get("roles", List.class);
+
+      return Optional.of(new JwtClaims(
+          claims.getSubject(),
+          roles == null ? List.of() : roles.stream().map(String::valueOf).toList(),
+          claims.getIssuedAt() == null ? null : claims.getIssuedAt().toInstant(),
+          claims.getExpiration() == null ? null : claims.getExpiration().toInstant()));
     } catch (MalformedJwtException e) {
       log.error("Invalid JWT token: {}", e.getMessage());
     } catch (ExpiredJwtException e) {
       log.error("JWT token is expired: {}", e.getMessage());
     } catch (UnsupportedJwtException e) {
       log.error("JWT token is unsupported: {}", e.getMessage());
+    } catch (JwtException e) {
+      log.error("JWT token is invalid: {}", e.getMessage());
     } catch (IllegalArgumentException e) {
       log.error("JWT claims string is empty: {}", e.getMessage());
     }
-    return false;
+    return Optional.empty();
   }
 
-  public List<String> getRolesFromToken(String token) {
+  private static ByteBuffer tokenHash(String token) {
     try {
-      Claims claims = Jwts.parserBuilder()
-          .setSigningKey(getSigningKey())
-          .build()
-          .parseClaimsJws(token)
-          .getBody();
-
-      return claims.get("roles", List.class);
-    } catch (JwtException e) {
-      log.error("Error extracting roles from token: {}", e.getMessage());
-      return List.of();
+      return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256")
+          .digest(token.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 недоступен", e);
     }
   }
-}
\ No newline at end of file
+
+  public String getUsernameFromToken(String token) {
+    return parse(token)
+        .map(JwtClaims::username)
+        .orElse(null);
+  }
+
+  public boolean validateToken(String token) {
+    return parse(token).isPresent();
+  }
+
+  public List<String> getRolesFromToken(String token) {
+    return parse(token)
+        .map(JwtClaims::roles)
+        .orElse(List.of());
+  }
+}
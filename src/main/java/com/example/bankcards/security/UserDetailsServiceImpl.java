@@ -1,27 +1,73 @@
 package com.example.bankcards.security;
 
+import com.example.bankcards.config.AuthProperties;
 import com.example.bankcards.entity.BankUser;
 import com.example.bankcards.entity.UserRole;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.util.AfterCommit;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import java.util.List;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
-@RequiredArgsConstructor
-public class UserDetailsServiceImpl implements UserDetailsService {
+@Slf4j
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
   private final UserRepository userRepository;
 
+  private final Cache<String, UserDetails> users;
+
+  public UserDetailsServiceImpl(UserRepository userRepository, AuthProperties authProperties,
+      MeterRegistry meterRegistry) {
+    this.userRepository = userRepository;
+    this.users = Caffeine.newBuilder()
+        .maximumSize(authProperties.userCache().maximumSize())
+        .expireAfterWrite(authProperties.userCache().ttl())
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, users, "userDetails");
+  }
+
   @Override
   public UserDetails loadUserByUsername(String username) {
 
+    UserDetails cached = users.get(username, this::loadFromDatabase);
+
+    return User.withUserDetails(cached).build();
+  }
+
+  @Override
+  @Transactional
+  public UserDetails updatePassword(UserDetails user, String newPassword) {
+
+    if (userRepository.updatePassword(user.getUsername(), newPassword) == 0) {
+      return user;
+    }
+    evict(user.getUsername());
+    log.info("Хеш пароля пользователя {} обновлён до текущих параметров", user.getUsername());
+
+    return User.withUserDetails(user).password(newPassword).build();
+  }
+
+  public void evict(String username) {
+    users.invalidate(username);
+    AfterCommit.run(() -> users.invalidate(username));
+  }
+
+  private UserDetails loadFromDatabase(String username) {
+
     BankUser bankUser = userRepository.findByUsername(username)
         .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
 
@@ -29,6 +75,7 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     List<GrantedAuthority> authorities = List.of(
         new SimpleGrantedAuthority("ROLE_" + role.getName()));
 
-    return new User(bankUser.getUsername(), bankUser.getPassword(), authorities);
+    return new User(bankUser.getUsername(), bankUser.getPassword(),
+        !Boolean.FALSE.equals(bankUser.getEnabled()), true, true, true, authorities);
   }
 }
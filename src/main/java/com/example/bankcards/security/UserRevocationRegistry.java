@@ -0,0 +1,102 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.dto.projection.TokenRevocation;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.util.AfterCommit;
+import jakarta.annotation.PostConstruct;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserRevocationRegistry {
+
+  private final UserRepository userRepository;
+
+  @Value("${jwt.expiration}")
+  private Long jwtExpiration;
+
+  private volatile Set<String> blockedUsers = Set.of();
+
+  private final Map<String, Instant> revokedBefore = new ConcurrentHashMap<>();
+
+  public boolean isRevoked(JwtClaims claims) {
+
+    if (blockedUsers.contains(claims.username())) {
+      return true;
+    }
+    Instant notBefore = revokedBefore.get(claims.username());
+    return notBefore != null
+        && (claims.issuedAt() == null || !toJwtPrecision(claims.issuedAt()).isAfter(notBefore));
+  }
+
+  public void block(String username) {
+    AfterCommit.run(() -> updateBlockedUsers(username, true));
+  }
+
+  public void unblock(String username) {
+    AfterCommit.run(() -> updateBlockedUsers(username, false));
+  }
+
+  public void revokeTokensIssuedBefore(String username, Instant instant) {
+    AfterCommit.run(() -> revokedBefore.merge(username, toJwtPrecision(instant),
+        UserRevocationRegistry::latest));
+  }
+
+  @PostConstruct
+  @Scheduled(fixedDelayString = "${bank.auth.revocation-refresh:30s}",
+      initialDelayString = "${bank.auth.revocation-refresh:30s}")
+  public void reload() {
+
+    Set<String> loaded = Set.copyOf(userRepository.findBlockedUsernames());
+    synchronized (this) {
+      blockedUsers = loaded;
+    }
+
+    Instant expired = Instant.now().minusMillis(jwtExpiration);
+    List<TokenRevocation> revocations =
+        userRepository.findTokenRevocationsSince(expired.atOffset(ZoneOffset.UTC));
+    for (TokenRevocation revocation : revocations) {
+      revokedBefore.merge(revocation.username(),
+          toJwtPrecision(revocation.tokensValidAfter().toInstant()),
+          UserRevocationRegistry::latest);
+    }
+    revokedBefore.values().removeIf(instant -> instant.isBefore(expired));
+    log.debug("Загружено {} заблокированных пользователей и {} отзывов токенов",
+        blockedUsers.size(), revocations.size());
+  }
+
+  // iat в JWT хранится с точностью до секунды, поэтому по нему нельзя понять, выпущен ли
+  // токен в ту же секунду до смены роли или после. Такие токены отзываются все: лишний
+  // повторный вход безопаснее, чем сохранение прежних прав до истечения токена.
+  private static Instant toJwtPrecision(Instant instant) {
+    return instant.truncatedTo(ChronoUnit.SECONDS);
+  }
+
+  private static Instant latest(Instant first, Instant second) {
+    return first.isAfter(second) ? first : second;
+  }
+
+  private synchronized void updateBlockedUsers(String username, boolean blocked) {
+
+    Set<String> updated = new HashSet<>(blockedUsers);
+    if (blocked) {
+      updated.add(username);
+    } else {
+      updated.remove(username);
+    }
+    blockedUsers = Set.copyOf(updated);
+  }
+}
@@ -0,0 +1,10 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.enums.CardExportFormat;
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface CardExportService {
+
+  long exportCards(CardExportFormat format, OutputStream out) throws IOException;
+}
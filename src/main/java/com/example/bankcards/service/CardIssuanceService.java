@@ -0,0 +1,11 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.response.BulkCardIssueItemResponse;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+public interface CardIssuanceService {
+
+  void issueCards(List<UUID> userIds, Consumer<BulkCardIssueItemResponse> results);
+}
@@ -4,6 +4,7 @@ import com.example.bankcards.dto.request.CreateCardRequest;
 import com.example.bankcards.dto.response.BalanceResponse;
 import com.example.bankcards.dto.response.CardResponse;
 import com.example.bankcards.dto.response.CreateCardResponse;
+import com.example.bankcards.dto.response.CursorPageResponse;
 import com.example.bankcards.dto.response.MessageResponse;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.enums.CardStatusEnum;
@@ -22,10 +23,16 @@ public interface CardService {
 
   Optional<CardResponse> usersCards(UUID cardId);
 
+  CardResponse findCardByNumber(String cardNumber);
+
   Page<CardResponse> getUserCards(String username, String search, Pageable pageable);
 
   Page<CardResponse> getAllCards(String search, Pageable pageable);
 
+  CursorPageResponse<CardResponse> scrollUserCards(String username, String cursor, int size);
+
+  CursorPageResponse<CardResponse> scrollAllCards(String cursor, int size);
+
   MessageResponse blockCard(UUID cardId,String name);
 
   BalanceResponse getBalance(UUID cardId, String username);
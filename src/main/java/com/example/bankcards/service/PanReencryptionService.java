@@ -0,0 +1,12 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.response.PanReencryptionStatusResponse;
+
+public interface PanReencryptionService {
+
+  PanReencryptionStatusResponse start();
+
+  PanReencryptionStatusResponse stop();
+
+  PanReencryptionStatusResponse status();
+}
@@ -0,0 +1,15 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.UserRole;
+import com.example.bankcards.entity.enums.CardStatusEnum;
+import com.example.bankcards.entity.enums.UserRoleEnum;
+
+public interface ReferenceDataService {
+
+  CardStatus cardStatus(CardStatusEnum status);
+
+  UserRole userRole(UserRoleEnum role);
+
+  void refresh();
+}
@@ -1,10 +1,18 @@
 package com.example.bankcards.service;
 
 import com.example.bankcards.dto.request.TransferRequest;
+import com.example.bankcards.dto.response.BatchTransferResponse;
 import com.example.bankcards.dto.response.TransactionResponse;
+import java.util.List;
 
 public interface TransactionService {
 
-  TransactionResponse transfer(TransferRequest request, String username);
+  default TransactionResponse transfer(TransferRequest request, String username) {
+    return transfer(request, username, null);
+  }
+
+  TransactionResponse transfer(TransferRequest request, String username, String idempotencyKey);
+
+  BatchTransferResponse transferBatch(List<TransferRequest> requests, String username);
 
 }
@@ -0,0 +1,15 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.request.TransferRequest;
+import com.example.bankcards.dto.response.TransactionResponse;
+import java.util.Optional;
+
+public interface TransferIdempotencyService {
+
+  Optional<TransactionResponse> findTransfer(String username, String idempotencyKey,
+      TransferRequest request);
+
+  void saveTransfer(String username, String idempotencyKey, TransferRequest request,
+      TransactionResponse response);
+
+}
@@ -1,15 +1,21 @@
 package com.example.bankcards.service;
 
 import com.example.bankcards.dto.request.UserRoleUpdateRequest;
+import com.example.bankcards.dto.response.CursorPageResponse;
 import com.example.bankcards.dto.response.MessageResponse;
 import com.example.bankcards.dto.response.UserResponse;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface UserService {
 
   List<UserResponse> getAllUsers();
 
+  CursorPageResponse<UserResponse> scrollUsers(String cursor, int size);
+
+  void streamUsers(Consumer<UserResponse> action);
+
   UserResponse getUserById(UUID userId);
 
   UserResponse updateUserRole(UUID userId, UserRoleUpdateRequest request);
@@ -6,13 +6,13 @@ import com.example.bankcards.dto.response.MessageResponse;
 import com.example.bankcards.dto.response.RegistrationResponse;
 import com.example.bankcards.entity.BankUser;
 import com.example.bankcards.entity.UserRole;
-import com.example.bankcards.exception.NotFoundException;
+import com.example.bankcards.entity.enums.UserRoleEnum;
 import com.example.bankcards.exception.UserAlreadyExistsException;
 import com.example.bankcards.repository.UserRepository;
-import com.example.bankcards.repository.UserRoleRepository;
 import com.example.bankcards.security.JwtToken;
 import com.example.bankcards.security.UserDetailsServiceImpl;
 import com.example.bankcards.service.AuthService;
+import com.example.bankcards.service.ReferenceDataService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -21,9 +21,8 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @Slf4j
@@ -32,9 +31,9 @@ public class AuthServiceImpl implements AuthService {
 
   private final UserRepository userRepository;
 
-  private final UserRoleRepository userRoleRepository;
+  private final ReferenceDataService referenceDataService;
 
-  private final BCryptPasswordEncoder bCryptPasswordEncoder;
+  private final PasswordEncoder passwordEncoder;
 
   private final UserDetailsServiceImpl userDetailsService;
 
@@ -42,8 +41,10 @@ public class AuthServiceImpl implements AuthService {
 
   private final AuthenticationManager authenticationManager;
 
+  // Без общей транзакции: хеширование BCrypt занимает сотни миллисекунд и не должно
+  // удерживать соединение из пула, поэтому пароль хешируется до вставки, а save
+  // выполняется в собственной короткой транзакции репозитория.
   @Override
-  @Transactional
   public RegistrationResponse registerUser(RegisterUserRequest request) {
 
     if (userRepository.existsByUsername(request.name())) {
@@ -51,15 +52,12 @@ public class AuthServiceImpl implements AuthService {
       throw new UserAlreadyExistsException("Пользователь с таким именем уже существует");
     }
 
-    UserRole role = userRoleRepository.findByName("USER")
-        .orElseThrow(() -> {
-          log.error("Роль USER не найдена при регистрации пользователя {}", request.name());
-          return new NotFoundException("Роль USER не найдена");
-        });
+    String encodedPassword = passwordEncoder.encode(request.password());
+    UserRole role = referenceDataService.userRole(UserRoleEnum.USER);
 
     BankUser newUser = BankUser.builder()
         .username(request.name())
-        .password(bCryptPasswordEncoder.encode(request.password()))
+        .password(encodedPassword)
         .fullName(request.fullName())
         .role(role)
         .enabled(true)
@@ -0,0 +1,113 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.config.CardExportProperties;
+import com.example.bankcards.dto.projection.CardListItem;
+import com.example.bankcards.dto.response.CardExportRowResponse;
+import com.example.bankcards.entity.enums.CardExportFormat;
+import com.example.bankcards.repository.CardExportJdbcRepository;
+import com.example.bankcards.service.CardExportService;
+import com.example.bankcards.util.CardMaskService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Потоковая выгрузка карт: строки читаются курсором и сразу пишутся в ответ
+ * с маскированным номером, сущности в контекст Hibernate не загружаются.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CardExportServiceImpl implements CardExportService {
+
+  private static final String CSV_HEADER =
+      "id,masked_number,holder_name,expiry_date,balance,status,user_id,created_at";
+
+  private final CardExportJdbcRepository cardExportRepository;
+
+  private final CardMaskService cardMaskService;
+
+  private final ObjectMapper objectMapper;
+
+  private final CardExportProperties properties;
+
+  @Override
+  @Transactional(readOnly = true)
+  public long exportCards(CardExportFormat format, OutputStream out) throws IOException {
+
+    Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    if (format == CardExportFormat.CSV) {
+      writer.write(CSV_HEADER);
+      writer.write('\n');
+    }
+
+    long[] exported = {0};
+    try {
+      cardExportRepository.forEachCard(properties.fetchSize(), card -> {
+        try {
+          writeRow(format, toRow(card), writer);
+        } catch (IOException ex) {
+          throw new UncheckedIOException(ex);
+        }
+        exported[0]++;
+      });
+    } catch (UncheckedIOException ex) {
+      throw ex.getCause();
+    }
+    writer.flush();
+
+    log.info("Выгружено карт: {} (формат {})", exported[0], format);
+    return exported[0];
+  }
+
+  private CardExportRowResponse toRow(CardListItem card) {
+    return new CardExportRowResponse(card.id(), cardMaskService.mask(card.lastFourDigits()),
+        card.holderName(), card.expiryDate(), card.balance(), card.status(), card.userId(),
+        card.createdAt());
+  }
+
+  private void writeRow(CardExportFormat format, CardExportRowResponse row, Writer writer)
+      throws IOException {
+
+    if (format == CardExportFormat.NDJSON) {
+      writer.write(objectMapper.writeValueAsString(row));
+    } else {
+      writer.write(String.valueOf(row.id()));
+      writer.write(',');
+      writer.write(row.maskedNumber());
+      writer.write(',');
+      writer.write(csv(row.holderName()));
+      writer.write(',');
+      writer.write(String.valueOf(row.expiryDate()));
+      writer.write(',');
+      writer.write(row.balance() == null ? "" : row.balance().toPlainString());
+      writer.write(',');
+      writer.write(csv(row.status()));
+      writer.write(',');
+      writer.write(String.valueOf(row.userId()));
+      writer.write(',');
+      writer.write(String.valueOf(row.createdAt()));
+    }
+    writer.write('\n');
+  }
+
+  private static String csv(String value) {
+    if (value == null) {
+      return "";
+    }
+    if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+        && value.indexOf('\r') < 0) {
+      return value;
+    }
+    return '"' + value.replace("\"", "\"\"") + '"';
+  }
+}
@@ -0,0 +1,274 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.config.CardIssuanceProperties;
+import com.example.bankcards.dto.projection.CardHolder;
+import com.example.bankcards.dto.response.BulkCardIssueItemResponse;
+import com.example.bankcards.entity.BankUser;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.enums.CardIssueStatus;
+import com.example.bankcards.entity.enums.CardStatusEnum;
+import com.example.bankcards.repository.CardIssuanceJdbcRepository;
+import com.example.bankcards.service.CardIssuanceService;
+import com.example.bankcards.service.ReferenceDataService;
+import com.example.bankcards.util.CardBlindIndexService;
+import com.example.bankcards.util.CardCryptoTinkService;
+import com.example.bankcards.util.CardMaskService;
+import com.example.bankcards.util.CardNumberGenerator;
+import com.example.bankcards.util.UuidV7Generator;
+import jakarta.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Массовый выпуск карт: владельцы читаются одним запросом, номера генерируются
+ * и шифруются пулом потоков, карты вставляются JDBC-батчами по порциям. Результат
+ * по каждой карте отдаётся сразу после фиксации её порции. Ошибка генерации, подбора
+ * уникального номера или сохранения помечает затронутые карты как FAILED и не обрывает поток.
+ */
+@Service
+@Slf4j
+public class CardIssuanceServiceImpl implements CardIssuanceService {
+
+  private static final BigDecimal INITIAL_BALANCE = BigDecimal.valueOf(1000);
+
+  private static final int VALIDITY_YEARS = 5;
+
+  private static final int MAX_PAN_ATTEMPTS = 5;
+
+  private static final String GENERATION_FAILURE =
+      "Не удалось сгенерировать карту, повторите выпуск";
+
+  private final CardIssuanceJdbcRepository cardIssuanceRepository;
+
+  private final ReferenceDataService referenceDataService;
+
+  private final CardNumberGenerator cardNumberGenerator;
+
+  private final CardCryptoTinkService cardCryptoTinkService;
+
+  private final CardBlindIndexService cardBlindIndexService;
+
+  private final CardMaskService cardMaskService;
+
+  private final TransactionTemplate transactionTemplate;
+
+  private final CardIssuanceProperties properties;
+
+  private final ExecutorService workers;
+
+  public CardIssuanceServiceImpl(CardIssuanceJdbcRepository cardIssuanceRepository,
+      ReferenceDataService referenceDataService, CardNumberGenerator cardNumberGenerator,
+      CardCryptoTinkService cardCryptoTinkService, CardBlindIndexService cardBlindIndexService,
+      CardMaskService cardMaskService, PlatformTransactionManager transactionManager,
+      CardIssuanceProperties properties) {
+    this.cardIssuanceRepository = cardIssuanceRepository;
+    this.referenceDataService = referenceDataService;
+    this.cardNumberGenerator = cardNumberGenerator;
+    this.cardCryptoTinkService = cardCryptoTinkService;
+    this.cardBlindIndexService = cardBlindIndexService;
+    this.cardMaskService = cardMaskService;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.properties = properties;
+    this.workers = Executors.newFixedThreadPool(properties.workers(),
+        new CustomizableThreadFactory("card-issuance-"));
+  }
+
+  @Override
+  public void issueCards(List<UUID> userIds, Consumer<BulkCardIssueItemResponse> results) {
+
+    Map<UUID, CardHolder> holders = cardIssuanceRepository
+        .findCardHolders(new LinkedHashSet<>(userIds)).stream()
+        .collect(Collectors.toMap(CardHolder::id, Function.identity()));
+    CardStatus status = referenceDataService.cardStatus(CardStatusEnum.ACTIVE);
+    LocalDate expiryDate = LocalDate.now().plusYears(VALIDITY_YEARS);
+
+    long created = 0;
+    for (int from = 0; from < userIds.size(); from += properties.chunkSize()) {
+      List<UUID> chunk = userIds.subList(from, Math.min(from + properties.chunkSize(),
+          userIds.size()));
+      created += issueChunk(from, chunk, holders, status, expiryDate, results);
+    }
+
+    log.info("Массовый выпуск: создано {} карт из {}", created, userIds.size());
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    workers.shutdown();
+  }
+
+  private long issueChunk(int offset, List<UUID> chunk, Map<UUID, CardHolder> holders,
+      CardStatus status, LocalDate expiryDate, Consumer<BulkCardIssueItemResponse> results) {
+
+    List<IssueAttempt> attempts = generate(chunk, holders, status, expiryDate);
+
+    List<Card> pending = List.of();
+    String failure = null;
+    try {
+      ensureUnique(attempts);
+      pending = attempts.stream().map(IssueAttempt::card).filter(Objects::nonNull).toList();
+      List<Card> batch = pending;
+      transactionTemplate.executeWithoutResult(tx -> cardIssuanceRepository.insertCards(batch));
+    } catch (DataAccessException ex) {
+      log.error("Не удалось сохранить порцию из {} карт", chunk.size(), ex);
+      failure = "Не удалось сохранить карту, повторите выпуск";
+    }
+
+    for (int i = 0; i < chunk.size(); i++) {
+      IssueAttempt attempt = attempts.get(i);
+      UUID userId = chunk.get(i);
+      if (attempt.card() == null) {
+        results.accept(new BulkCardIssueItemResponse(offset + i, userId, CardIssueStatus.FAILED,
+            null, null, attempt.failure()));
+      } else if (failure != null) {
+        results.accept(new BulkCardIssueItemResponse(offset + i, userId, CardIssueStatus.FAILED,
+            null, null, failure));
+      } else {
+        Card card = attempt.card();
+        results.accept(new BulkCardIssueItemResponse(offset + i, userId, CardIssueStatus.CREATED,
+            card.getId(), cardMaskService.mask(card.getLastFourDigits()), "Карта создана!"));
+      }
+    }
+    return failure == null ? pending.size() : 0;
+  }
+
+  private List<IssueAttempt> generate(List<UUID> chunk, Map<UUID, CardHolder> holders,
+      CardStatus status, LocalDate expiryDate) {
+
+    int slices = Math.min(properties.workers(), chunk.size());
+    int sliceSize = (chunk.size() + slices - 1) / slices;
+
+    List<List<UUID>> sliceIds = new ArrayList<>(slices);
+    List<CompletableFuture<List<IssueAttempt>>> futures = new ArrayList<>(slices);
+    for (int from = 0; from < chunk.size(); from += sliceSize) {
+      List<UUID> slice = chunk.subList(from, Math.min(from + sliceSize, chunk.size()));
+      sliceIds.add(slice);
+      futures.add(CompletableFuture.supplyAsync(() -> {
+        List<IssueAttempt> attempts = new ArrayList<>(slice.size());
+        for (UUID userId : slice) {
+          CardHolder holder = holders.get(userId);
+          attempts.add(holder == null
+              ? IssueAttempt.failed("Пользователь с id " + userId + " не найден")
+              : tryNewCard(holder, status, expiryDate));
+        }
+        return attempts;
+      }, workers));
+    }
+
+    List<IssueAttempt> attempts = new ArrayList<>(chunk.size());
+    for (int i = 0; i < futures.size(); i++) {
+      try {
+        attempts.addAll(futures.get(i).join());
+      } catch (CompletionException | CancellationException ex) {
+        log.error("Не удалось сгенерировать {} карт", sliceIds.get(i).size(), ex);
+        sliceIds.get(i).forEach(userId -> attempts.add(IssueAttempt.failed(GENERATION_FAILURE)));
+      }
+    }
+    return attempts;
+  }
+
+  private void ensureUnique(List<IssueAttempt> attempts) {
+
+    Set<String> hashes = attempts.stream()
+        .map(IssueAttempt::card)
+        .filter(Objects::nonNull)
+        .map(Card::getNumberHash)
+        .collect(Collectors.toSet());
+    if (hashes.isEmpty()) {
+      return;
+    }
+    Set<String> taken = new HashSet<>(cardIssuanceRepository.findExistingNumberHashes(hashes));
+    Set<String> seen = new HashSet<>();
+
+    for (int i = 0; i < attempts.size(); i++) {
+      Card card = attempts.get(i).card();
+      if (card != null) {
+        attempts.set(i, uniqueCard(card, taken, seen));
+      }
+    }
+  }
+
+  private IssueAttempt uniqueCard(Card card, Set<String> taken, Set<String> seen) {
+
+    for (int attempt = 1; taken.contains(card.getNumberHash())
+        || !seen.add(card.getNumberHash()); attempt++) {
+      if (attempt == MAX_PAN_ATTEMPTS) {
+        log.error("Не удалось сгенерировать уникальный номер карты для пользователя {}",
+            card.getBankUser().getId());
+        return IssueAttempt.failed("Не удалось сгенерировать уникальный номер карты");
+      }
+      log.warn("Сгенерирован уже выпущенный номер карты, повтор");
+      IssueAttempt retry = tryNewCard(
+          new CardHolder(card.getBankUser().getId(), card.getHolderName()),
+          card.getStatus(), card.getExpiryDate());
+      if (retry.card() == null) {
+        return retry;
+      }
+      card = retry.card();
+      taken.addAll(cardIssuanceRepository.findExistingNumberHashes(
+          Set.of(card.getNumberHash())));
+    }
+    return IssueAttempt.issued(card);
+  }
+
+  private IssueAttempt tryNewCard(CardHolder holder, CardStatus status, LocalDate expiryDate) {
+
+    try {
+      return IssueAttempt.issued(newCard(holder, status, expiryDate));
+    } catch (RuntimeException ex) {
+      log.error("Не удалось сгенерировать карту для пользователя {}", holder.id(), ex);
+      return IssueAttempt.failed(GENERATION_FAILURE);
+    }
+  }
+
+  private Card newCard(CardHolder holder, CardStatus status, LocalDate expiryDate) {
+
+    String plainPan = cardNumberGenerator.generateMirCard();
+
+    return Card.builder()
+        .id(UuidV7Generator.next())
+        .numberEncrypted(cardCryptoTinkService.encrypt(plainPan))
+        .numberHash(cardBlindIndexService.index(plainPan))
+        .lastFourDigits(plainPan.substring(plainPan.length() - 4))
+        .holderName(holder.fullName())
+        .expiryDate(expiryDate)
+        .balance(INITIAL_BALANCE)
+        .status(status)
+        .bankUser(BankUser.builder().id(holder.id()).build())
+        .build();
+  }
+
+  private record IssueAttempt(Card card, String failure) {
+
+    static IssueAttempt issued(Card card) {
+      return new IssueAttempt(card, null);
+    }
+
+    static IssueAttempt failed(String failure) {
+      return new IssueAttempt(null, failure);
+    }
+  }
+}
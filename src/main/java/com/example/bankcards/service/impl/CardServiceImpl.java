@@ -1,49 +1,68 @@
 package com.example.bankcards.service.impl;
 
+import com.example.bankcards.dto.projection.CardListItem;
 import com.example.bankcards.dto.request.CreateCardRequest;
 import com.example.bankcards.dto.response.BalanceResponse;
 import com.example.bankcards.dto.response.CardResponse;
 import com.example.bankcards.dto.response.CreateCardResponse;
+import com.example.bankcards.dto.response.CursorPageResponse;
 import com.example.bankcards.dto.response.MessageResponse;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.entity.enums.CardStatusEnum;
+import com.example.bankcards.exception.BadRequestException;
 import com.example.bankcards.exception.NotFoundException;
 import com.example.bankcards.exception.UserAlreadyExistsException;
 import com.example.bankcards.repository.CardRepository;
-import com.example.bankcards.repository.CardStatusRepository;
 import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.service.CardService;
+import com.example.bankcards.service.ReferenceDataService;
+import com.example.bankcards.util.CardBlindIndexService;
 import com.example.bankcards.util.CardCryptoTinkService;
 import com.example.bankcards.util.CardMaskService;
 import com.example.bankcards.util.CardNumberGenerator;
+import com.example.bankcards.util.KeysetCursor;
+import com.example.bankcards.util.KeysetPages;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 @RequiredArgsConstructor
 @Service
 @Slf4j
 public class CardServiceImpl implements CardService {
 
+
+  private static final int MAX_PAN_ATTEMPTS = 5;
+
+  // pg_trgm не строит триграмм для строк короче трёх символов, и поиск по всем картам
+  // превращается в полный просмотр. Поиск по своим картам ограничен индексом
+  // (user_id, last_four_digits), поэтому там короткие строки допустимы.
+  private static final int MIN_GLOBAL_SEARCH_LENGTH = 3;
+
   private final CardRepository cardRepository;
 
   private final UserRepository userRepository;
 
-  private final CardStatusRepository cardStatusRepository;
+  private final ReferenceDataService referenceDataService;
 
   private final CardNumberGenerator cardNumberGenerator;
 
   private final CardCryptoTinkService cardCryptoTinkService;
 
+  private final CardBlindIndexService cardBlindIndexService;
+
   private final CardMaskService cardMaskService;
 
   @Override
@@ -53,14 +72,24 @@ public class CardServiceImpl implements CardService {
         .orElseThrow(
             () -> new NotFoundException("Пользователь с id " + request.userId() + " не найден"));
 
-    CardStatus status = cardStatusRepository.getCardStatusByName(CardStatusEnum.ACTIVE.name());
+    CardStatus status = referenceDataService.cardStatus(CardStatusEnum.ACTIVE);
 
     String plainPan = cardNumberGenerator.generateMirCard();
+    String numberHash = cardBlindIndexService.index(plainPan);
+    for (int attempt = 1; cardRepository.existsByNumberHash(numberHash); attempt++) {
+      if (attempt == MAX_PAN_ATTEMPTS) {
+        throw new IllegalStateException("Не удалось сгенерировать уникальный номер карты");
+      }
+      log.warn("Сгенерирован уже выпущенный номер карты, повтор");
+      plainPan = cardNumberGenerator.generateMirCard();
+      numberHash = cardBlindIndexService.index(plainPan);
+    }
     String encryptedPan = cardCryptoTinkService.encrypt(plainPan);
     String lastFour = plainPan.substring(plainPan.length() - 4);
 
     Card card = Card.builder()
         .numberEncrypted(encryptedPan)
+        .numberHash(numberHash)
         .lastFourDigits(lastFour)
         .holderName(user.getFullName())
         .expiryDate(LocalDate.now().plusYears(5))
@@ -94,9 +123,9 @@ public class CardServiceImpl implements CardService {
         .orElseThrow(() -> new NotFoundException("Карта с id " + cardId + " не найдена"));
     log.info("Изменение статуса карты {} на {}", card.getNumberEncrypted(), newStatus.name());
 
-    CardStatus status = cardStatusRepository.getCardStatusByName(newStatus.name());
+    CardStatus status = referenceDataService.cardStatus(newStatus);
 
-    if (card.getStatus().equals(status)) {
+    if (card.getStatus().getId().equals(status.getId())) {
       log.warn("Карта {} уже в статусе {}", card.getNumberEncrypted(), newStatus.name());
       throw new UserAlreadyExistsException("Карта уже заблокирована");
     }
@@ -134,7 +163,7 @@ public class CardServiceImpl implements CardService {
   @Override
   public Optional<CardResponse> usersCards(UUID cardId) {
 
-    var card = cardRepository.findById(cardId)
+    var card = cardRepository.findByIdWithUserAndStatus(cardId)
         .orElseThrow(() -> new NotFoundException("Карта с таким id" + cardId + " не найдена"));
 
     String masked = cardMaskService.mask(card.getLastFourDigits());
@@ -152,49 +181,83 @@ public class CardServiceImpl implements CardService {
   }
 
 
+  @Override
+  public CardResponse findCardByNumber(String cardNumber) {
+
+    var card = cardRepository.findByNumberHash(cardBlindIndexService.index(cardNumber))
+        .orElseThrow(() -> new NotFoundException("Карта с таким номером не найдена"));
+
+    return new CardResponse(
+        "Карта найдена!",
+        card.getId(),
+        cardMaskService.mask(card.getLastFourDigits()),
+        card.getHolderName(),
+        card.getExpiryDate(),
+        card.getBalance(),
+        card.getStatus().getName(),
+        card.getBankUser().getId()
+    );
+  }
+
   @Override
   public Page<CardResponse> getUserCards(String username, String search, Pageable pageable) {
-    Page<Card> page = cardRepository.findByUsernameAndSearch(username, search, pageable);
-
-    return page.map(card -> {
-
-      String masked = cardMaskService.mask(card.getLastFourDigits());
-
-      return new CardResponse(
-          "",
-          card.getId(),
-          masked,
-          card.getHolderName(),
-          card.getExpiryDate(),
-          card.getBalance(),
-          card.getStatus().getName(),
-          card.getBankUser().getId()
-      );
-    });
+    Page<CardListItem> page = StringUtils.hasText(search)
+        ? cardRepository.findByUsernameAndSearch(username, search.strip(), pageable)
+        : cardRepository.findByUsername(username, pageable);
+
+    return page.map(this::toListItem);
   }
 
   @Override
   public Page<CardResponse> getAllCards(String search, Pageable pageable) {
-    Page<Card> page = cardRepository.findAllWithSearch(search, pageable);
-
-    return page.map(card -> {
-
-      String masked = cardMaskService.mask(card.getLastFourDigits());
-
-      return new CardResponse(
-          "",
-          card.getId(),
-          masked,
-          card.getHolderName(),
-          card.getExpiryDate(),
-          card.getBalance(),
-          card.getStatus().getName(),
-          card.getBankUser().getId()
-      );
-    });
+    if (!StringUtils.hasText(search)) {
+      return cardRepository.findAllListItems(pageable).map(this::toListItem);
+    }
+
+    String term = search.strip();
+    if (term.length() < MIN_GLOBAL_SEARCH_LENGTH) {
+      throw new BadRequestException(
+          "Строка поиска должна содержать не менее " + MIN_GLOBAL_SEARCH_LENGTH + " символов");
+    }
+    Page<CardListItem> page = cardRepository.findAllWithSearch(term, pageable);
+
+    return page.map(this::toListItem);
   }
 
   @Override
+  public CursorPageResponse<CardResponse> scrollUserCards(String username, String cursor,
+      int size) {
+
+    Limit limit = KeysetPages.lookAheadLimit(size);
+    if (cursor == null) {
+      return KeysetPages.toPage(cardRepository.findFirstPageByUsername(username, limit), size,
+          CardServiceImpl::cursorOf, this::toListItem);
+    }
+
+    var after = KeysetCursor.decode(cursor);
+    List<CardListItem> cards = cardRepository.findNextPageByUsername(username, after.createdAt(),
+        after.id(), limit);
+
+    return KeysetPages.toPage(cards, size, CardServiceImpl::cursorOf, this::toListItem);
+  }
+
+  @Override
+  public CursorPageResponse<CardResponse> scrollAllCards(String cursor, int size) {
+
+    Limit limit = KeysetPages.lookAheadLimit(size);
+    if (cursor == null) {
+      return KeysetPages.toPage(cardRepository.findFirstPage(limit), size,
+          CardServiceImpl::cursorOf, this::toListItem);
+    }
+
+    var after = KeysetCursor.decode(cursor);
+    List<CardListItem> cards = cardRepository.findNextPage(after.createdAt(), after.id(), limit);
+
+    return KeysetPages.toPage(cards, size, CardServiceImpl::cursorOf, this::toListItem);
+  }
+
+  @Override
+  @Transactional
   public MessageResponse blockCard(UUID cardId, String name) {
 
     var card = cardRepository.findById(cardId).orElseThrow();
@@ -204,9 +267,9 @@ public class CardServiceImpl implements CardService {
     }
     log.info("Пользователь {} блокирует карту {}", name, card.getNumberEncrypted());
 
-    var blockStatus = cardStatusRepository.getCardStatusByName(CardStatusEnum.BLOCKED.name());
+    var blockStatus = referenceDataService.cardStatus(CardStatusEnum.BLOCKED);
 
-    if (card.getStatus().equals(blockStatus)) {
+    if (card.getStatus().getId().equals(blockStatus.getId())) {
       log.warn("Карта {} уже заблокирована", card.getNumberEncrypted());
       throw new UserAlreadyExistsException("Карта уже заблокирована");
     }
@@ -221,7 +284,7 @@ public class CardServiceImpl implements CardService {
   @Override
   public BalanceResponse getBalance(UUID cardId, String username) {
 
-    var card = cardRepository.findById(cardId)
+    var card = cardRepository.findByIdWithUserAndStatus(cardId)
         .orElseThrow(() -> new NotFoundException("Card not found"));
 
     if (!card.getBankUser().getUsername().equals(username)) {
@@ -232,5 +295,25 @@ public class CardServiceImpl implements CardService {
     return new BalanceResponse(card.getId(), card.getBalance(), card.getHolderName());
   }
 
+  private static KeysetCursor cursorOf(CardListItem card) {
+    return new KeysetCursor(card.createdAt(), card.id());
+  }
+
+  private CardResponse toListItem(CardListItem card) {
+
+    String masked = cardMaskService.mask(card.lastFourDigits());
+
+    return new CardResponse(
+        "",
+        card.id(),
+        masked,
+        card.holderName(),
+        card.expiryDate(),
+        card.balance(),
+        card.status(),
+        card.userId()
+    );
+  }
+
 
 }
@@ -0,0 +1,291 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.config.PanReencryptionProperties;
+import com.example.bankcards.dto.projection.EncryptedPan;
+import com.example.bankcards.dto.response.PanReencryptionStatusResponse;
+import com.example.bankcards.entity.PanReencryptionCheckpoint;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.PanReencryptionCheckpointRepository;
+import com.example.bankcards.service.PanReencryptionService;
+import com.example.bankcards.util.CardBlindIndexService;
+import com.example.bankcards.util.CardCryptoTinkService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.sql.Statement;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Перешифровывает номера карт текущим основным ключом Tink после ротации ключевого набора
+ * и заполняет недостающий слепой индекс номера. Карты читаются порциями по возрастанию id,
+ * обрабатываются пулом потоков и записываются пакетным UPDATE; позиция сохраняется
+ * в pan_reencryption_checkpoints в той же транзакции, поэтому прерванная задача продолжает
+ * работу с последней записанной порции.
+ */
+@Service
+@Slf4j
+public class PanReencryptionServiceImpl implements PanReencryptionService {
+
+  static final String JOB_NAME = "pan";
+
+  private static final UUID FIRST_CARD_ID = new UUID(0L, 0L);
+
+  // version увеличивается, чтобы карта, загруженная в JPA до перешифрования, не записала
+  // при сбросе старый шифртекст обратно: её проверка версии завершится ошибкой.
+  private static final String UPDATE_SQL = """
+      UPDATE cards
+      SET number_encrypted = ?, number_hash = ?, version = version + 1, updated_at = now()
+      WHERE id = ? AND number_encrypted = ?
+      """;
+
+  private final CardRepository cardRepository;
+
+  private final PanReencryptionCheckpointRepository checkpointRepository;
+
+  private final CardCryptoTinkService cardCryptoTinkService;
+
+  private final CardBlindIndexService cardBlindIndexService;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  private final TransactionTemplate transactionTemplate;
+
+  private final PanReencryptionProperties properties;
+
+  private final ExecutorService coordinator;
+
+  private final ExecutorService workers;
+
+  private final AtomicBoolean running = new AtomicBoolean();
+
+  private final Counter scannedCounter;
+
+  private final Counter reencryptedCounter;
+
+  private final Counter failedCounter;
+
+  private volatile boolean stopRequested;
+
+  private volatile PanReencryptionStatusResponse progress;
+
+  public PanReencryptionServiceImpl(CardRepository cardRepository,
+      PanReencryptionCheckpointRepository checkpointRepository,
+      CardCryptoTinkService cardCryptoTinkService, CardBlindIndexService cardBlindIndexService,
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager, PanReencryptionProperties properties,
+      MeterRegistry meterRegistry) {
+    this.cardRepository = cardRepository;
+    this.checkpointRepository = checkpointRepository;
+    this.cardCryptoTinkService = cardCryptoTinkService;
+    this.cardBlindIndexService = cardBlindIndexService;
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.properties = properties;
+    this.coordinator = Executors.newSingleThreadExecutor(
+        new CustomizableThreadFactory("pan-reencryption-"));
+    this.workers = Executors.newFixedThreadPool(properties.workers(),
+        new CustomizableThreadFactory("pan-reencryption-worker-"));
+    this.scannedCounter = Counter.builder("bank.pan.reencryption.scanned")
+        .description("Карты, просмотренные задачей перешифрования")
+        .register(meterRegistry);
+    this.reencryptedCounter = Counter.builder("bank.pan.reencryption.reencrypted")
+        .description("Номера карт, перешифрованные основным ключом")
+        .register(meterRegistry);
+    this.failedCounter = Counter.builder("bank.pan.reencryption.failed")
+        .description("Номера карт, которые не удалось перешифровать")
+        .register(meterRegistry);
+    Gauge.builder("bank.pan.reencryption.running", running, r -> r.get() ? 1 : 0)
+        .description("Выполняется ли задача перешифрования")
+        .register(meterRegistry);
+  }
+
+  @Override
+  public PanReencryptionStatusResponse start() {
+
+    if (running.compareAndSet(false, true)) {
+      stopRequested = false;
+      coordinator.execute(this::run);
+      log.info("Запущено перешифрование номеров карт ключом {}",
+          cardCryptoTinkService.primaryKeyId());
+    }
+    return status();
+  }
+
+  @Override
+  public PanReencryptionStatusResponse stop() {
+
+    stopRequested = true;
+    return status();
+  }
+
+  @Override
+  public PanReencryptionStatusResponse status() {
+
+    PanReencryptionStatusResponse current = progress;
+    if (current != null) {
+      return current;
+    }
+    return checkpointRepository.findById(JOB_NAME)
+        .map(checkpoint -> toResponse(checkpoint, running.get()))
+        .orElseGet(() -> new PanReencryptionStatusResponse(running.get(),
+            cardCryptoTinkService.primaryKeyId(), null, 0, 0, 0, null));
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    stopRequested = true;
+    coordinator.shutdown();
+    workers.shutdown();
+  }
+
+  private void run() {
+
+    try {
+      PanReencryptionCheckpoint checkpoint = resumeOrCreate();
+      progress = toResponse(checkpoint, true);
+      long nextSlot = System.nanoTime();
+
+      while (!stopRequested) {
+        UUID afterId = checkpoint.getLastCardId() != null
+            ? checkpoint.getLastCardId()
+            : FIRST_CARD_ID;
+        List<EncryptedPan> chunk = cardRepository.findEncryptedPansAfter(afterId,
+            Limit.of(properties.chunkSize()));
+
+        if (chunk.isEmpty()) {
+          checkpoint.setCompletedAt(OffsetDateTime.now());
+          checkpoint = checkpointRepository.save(checkpoint);
+          log.info("Перешифрование завершено: просмотрено {}, перешифровано {}, ошибок {}",
+              checkpoint.getScanned(), checkpoint.getReencrypted(), checkpoint.getFailed());
+          break;
+        }
+
+        nextSlot = throttle(nextSlot, chunk.size());
+        checkpoint = processChunk(checkpoint, chunk);
+        progress = toResponse(checkpoint, true);
+      }
+
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      log.warn("Перешифрование прервано");
+    } catch (RuntimeException ex) {
+      log.error("Перешифрование остановлено из-за ошибки, продолжится с контрольной точки", ex);
+    } finally {
+      progress = null;
+      running.set(false);
+    }
+  }
+
+  private PanReencryptionCheckpoint resumeOrCreate() {
+
+    int primaryKeyId = cardCryptoTinkService.primaryKeyId();
+
+    return checkpointRepository.findById(JOB_NAME)
+        .filter(checkpoint -> checkpoint.getPrimaryKeyId() == primaryKeyId)
+        .filter(checkpoint -> checkpoint.getCompletedAt() == null)
+        .orElseGet(() -> PanReencryptionCheckpoint.builder()
+            .jobName(JOB_NAME)
+            .primaryKeyId(primaryKeyId)
+            .build());
+  }
+
+  private long throttle(long nextSlot, int cards) throws InterruptedException {
+
+    long now = System.nanoTime();
+    if (nextSlot > now) {
+      TimeUnit.NANOSECONDS.sleep(nextSlot - now);
+      now = nextSlot;
+    }
+    return now + TimeUnit.SECONDS.toNanos(cards) / properties.cardsPerSecond();
+  }
+
+  private PanReencryptionCheckpoint processChunk(PanReencryptionCheckpoint checkpoint,
+      List<EncryptedPan> chunk) {
+
+    AtomicLong failed = new AtomicLong();
+    List<Object[]> updates = reencrypt(chunk, failed);
+    AtomicLong updated = new AtomicLong();
+
+    PanReencryptionCheckpoint saved = transactionTemplate.execute(status -> {
+      for (int count : jdbcTemplate.batchUpdate(UPDATE_SQL, updates)) {
+        if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+          updated.incrementAndGet();
+        }
+      }
+      checkpoint.setLastCardId(chunk.get(chunk.size() - 1).id());
+      checkpoint.setScanned(checkpoint.getScanned() + chunk.size());
+      checkpoint.setReencrypted(checkpoint.getReencrypted() + updated.get());
+      checkpoint.setFailed(checkpoint.getFailed() + failed.get());
+      return checkpointRepository.save(checkpoint);
+    });
+
+    scannedCounter.increment(chunk.size());
+    reencryptedCounter.increment(updated.get());
+    failedCounter.increment(failed.get());
+
+    return saved;
+  }
+
+  private List<Object[]> reencrypt(List<EncryptedPan> chunk, AtomicLong failed) {
+
+    int slices = Math.min(properties.workers(), chunk.size());
+    int sliceSize = (chunk.size() + slices - 1) / slices;
+
+    List<CompletableFuture<List<Object[]>>> futures = new ArrayList<>(slices);
+    for (int from = 0; from < chunk.size(); from += sliceSize) {
+      List<EncryptedPan> slice = chunk.subList(from, Math.min(from + sliceSize, chunk.size()));
+      futures.add(CompletableFuture.supplyAsync(() -> reencryptSlice(slice, failed), workers));
+    }
+
+    List<Object[]> updates = new ArrayList<>(chunk.size());
+    futures.forEach(future -> updates.addAll(future.join()));
+    return updates;
+  }
+
+  private List<Object[]> reencryptSlice(List<EncryptedPan> slice, AtomicLong failed) {
+
+    List<Object[]> updates = new ArrayList<>(slice.size());
+    for (EncryptedPan pan : slice) {
+      try {
+        boolean current = cardCryptoTinkService.isEncryptedWithPrimary(pan.numberEncrypted());
+        if (current && pan.numberHash() != null) {
+          continue;
+        }
+        String plainPan = cardCryptoTinkService.decrypt(pan.numberEncrypted());
+        updates.add(new Object[]{
+            current ? pan.numberEncrypted() : cardCryptoTinkService.encrypt(plainPan),
+            pan.numberHash() != null ? pan.numberHash() : cardBlindIndexService.index(plainPan),
+            pan.id(),
+            pan.numberEncrypted()});
+      } catch (RuntimeException ex) {
+        failed.incrementAndGet();
+        log.warn("Не удалось перешифровать номер карты {}", pan.id(), ex);
+      }
+    }
+    return updates;
+  }
+
+  private static PanReencryptionStatusResponse toResponse(PanReencryptionCheckpoint checkpoint,
+      boolean running) {
+    return new PanReencryptionStatusResponse(running, checkpoint.getPrimaryKeyId(),
+        checkpoint.getLastCardId(), checkpoint.getScanned(), checkpoint.getReencrypted(),
+        checkpoint.getFailed(), checkpoint.getCompletedAt());
+  }
+}
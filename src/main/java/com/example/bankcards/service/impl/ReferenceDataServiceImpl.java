@@ -0,0 +1,75 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.UserRole;
+import com.example.bankcards.entity.enums.CardStatusEnum;
+import com.example.bankcards.entity.enums.UserRoleEnum;
+import com.example.bankcards.repository.CardStatusRepository;
+import com.example.bankcards.repository.UserRoleRepository;
+import com.example.bankcards.service.ReferenceDataService;
+import jakarta.annotation.PostConstruct;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReferenceDataServiceImpl implements ReferenceDataService {
+
+  private final CardStatusRepository cardStatusRepository;
+
+  private final UserRoleRepository userRoleRepository;
+
+  private volatile Snapshot snapshot;
+
+  @Override
+  public CardStatus cardStatus(CardStatusEnum status) {
+    return snapshot.cardStatuses().get(status);
+  }
+
+  @Override
+  public UserRole userRole(UserRoleEnum role) {
+    return snapshot.userRoles().get(role);
+  }
+
+  @Override
+  @PostConstruct
+  public void refresh() {
+
+    var cardStatuses = index(CardStatusEnum.class, cardStatusRepository.findAll(),
+        CardStatus::getName);
+    var userRoles = index(UserRoleEnum.class, userRoleRepository.findAll(), UserRole::getName);
+
+    snapshot = new Snapshot(cardStatuses, userRoles);
+    log.info("Загружены справочники: {} статусов карт, {} ролей",
+        cardStatuses.size(), userRoles.size());
+  }
+
+  private static <E extends Enum<E>, T> Map<E, T> index(Class<E> type, List<T> rows,
+      Function<T, String> name) {
+
+    Map<String, T> byName = rows.stream()
+        .collect(Collectors.toMap(name, Function.identity()));
+
+    Map<E, T> byEnum = new EnumMap<>(type);
+    for (E constant : type.getEnumConstants()) {
+      T row = byName.get(constant.name());
+      if (row == null) {
+        throw new IllegalStateException(
+            "В справочнике " + type.getSimpleName() + " нет значения " + constant.name());
+      }
+      byEnum.put(constant, row);
+    }
+
+    return byEnum;
+  }
+
+  private record Snapshot(Map<CardStatusEnum, CardStatus> cardStatuses,
+                          Map<UserRoleEnum, UserRole> userRoles) {}
+}
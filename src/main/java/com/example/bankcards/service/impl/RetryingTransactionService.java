@@ -0,0 +1,102 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.config.TransferProperties;
+import com.example.bankcards.dto.request.TransferRequest;
+import com.example.bankcards.dto.response.BatchTransferResponse;
+import com.example.bankcards.dto.response.TransactionResponse;
+import com.example.bankcards.service.TransactionService;
+import com.example.bankcards.service.TransferIdempotencyService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+@Primary
+@Service
+@Slf4j
+public class RetryingTransactionService implements TransactionService {
+
+  private final TransactionServiceImpl transactionService;
+
+  private final TransferIdempotencyService transferIdempotencyService;
+
+  private final TransferProperties.Retry retry;
+
+  private final Counter retryCounter;
+
+  private final Counter exhaustedCounter;
+
+  public RetryingTransactionService(TransactionServiceImpl transactionService,
+      TransferIdempotencyService transferIdempotencyService,
+      TransferProperties transferProperties, MeterRegistry meterRegistry) {
+    this.transactionService = transactionService;
+    this.transferIdempotencyService = transferIdempotencyService;
+    this.retry = transferProperties.retry();
+    this.retryCounter = Counter.builder("bank.transfer.optimistic.retries")
+        .description("Повторы перевода после конфликта версий карты")
+        .register(meterRegistry);
+    this.exhaustedCounter = Counter.builder("bank.transfer.optimistic.exhausted")
+        .description("Переводы, не выполненные после всех повторов")
+        .register(meterRegistry);
+  }
+
+  @Override
+  public TransactionResponse transfer(TransferRequest request, String username,
+      String idempotencyKey) {
+
+    if (idempotencyKey != null) {
+      Optional<TransactionResponse> replayed = transferIdempotencyService.findTransfer(username,
+          idempotencyKey, request);
+      if (replayed.isPresent()) {
+        log.info("Повторный запрос перевода {} пользователя {}, возвращён сохранённый результат",
+            idempotencyKey, username);
+        return replayed.get();
+      }
+    }
+
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return transactionService.transfer(request, username, idempotencyKey);
+      } catch (DataIntegrityViolationException ex) {
+        if (idempotencyKey == null) {
+          throw ex;
+        }
+        return transferIdempotencyService.findTransfer(username, idempotencyKey, request)
+            .orElseThrow(() -> ex);
+      } catch (OptimisticLockingFailureException ex) {
+        if (attempt >= retry.maxAttempts()) {
+          exhaustedCounter.increment();
+          log.warn("Перевод с карты {} не выполнен после {} попыток", request.fromCardId(), attempt);
+          throw ex;
+        }
+        retryCounter.increment();
+        log.debug("Конфликт версий при переводе с карты {}, попытка {}", request.fromCardId(), attempt);
+        backOff(attempt, ex);
+      }
+    }
+  }
+
+  @Override
+  public BatchTransferResponse transferBatch(List<TransferRequest> requests, String username) {
+    return transactionService.transferBatch(requests, username);
+  }
+
+  private void backOff(int attempt, OptimisticLockingFailureException cause) {
+
+    long ceiling = Math.min(retry.maxBackoff().toMillis(),
+        retry.initialBackoff().toMillis() << Math.min(attempt - 1, 20));
+
+    try {
+      Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+      throw cause;
+    }
+  }
+}
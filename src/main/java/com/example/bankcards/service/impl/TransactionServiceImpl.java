@@ -1,7 +1,12 @@
 package com.example.bankcards.service.impl;
 
+import com.example.bankcards.config.TransferProperties;
+import com.example.bankcards.config.TransferProperties.LockingMode;
 import com.example.bankcards.dto.request.TransferRequest;
+import com.example.bankcards.dto.response.BatchTransferItemResponse;
+import com.example.bankcards.dto.response.BatchTransferResponse;
 import com.example.bankcards.dto.response.TransactionResponse;
+import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.Transaction;
 import com.example.bankcards.entity.enums.TransactionStatus;
 import com.example.bankcards.exception.InsufficientBalanceException;
@@ -9,6 +14,17 @@ import com.example.bankcards.exception.NotFoundException;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.TransactionRepository;
 import com.example.bankcards.service.TransactionService;
+import com.example.bankcards.service.TransferIdempotencyService;
+import com.example.bankcards.util.CardLockOrder;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.access.AccessDeniedException;
@@ -24,32 +40,116 @@ public class TransactionServiceImpl implements TransactionService {
 
   private final TransactionRepository transactionRepository;
 
+  private final TransferProperties transferProperties;
+
+  private final TransferIdempotencyService transferIdempotencyService;
+
+  @Override
+  @Transactional
+  public TransactionResponse transfer(TransferRequest request, String username,
+      String idempotencyKey) {
+
+    var tx = transferProperties.lockingMode() == LockingMode.ATOMIC
+        ? transferAtomically(request, username)
+        : transferLoadedCards(request, username);
+
+    var response = new TransactionResponse(tx.getId(), tx.getStatus(),
+        "Transfer completed successfully");
+
+    if (idempotencyKey != null) {
+      transferIdempotencyService.saveTransfer(username, idempotencyKey, request, response);
+    }
+
+    return response;
+  }
+
   @Override
   @Transactional
-  public TransactionResponse transfer(TransferRequest request, String username) {
+  public BatchTransferResponse transferBatch(List<TransferRequest> requests, String username) {
+
+    List<UUID> cardIds = CardLockOrder.sorted(requests.stream()
+        .flatMap(request -> Stream.of(request.fromCardId(), request.toCardId()))
+        .toList());
+
+    Map<UUID, Card> cards = cardRepository.findAllByIdForUpdate(cardIds)
+        .stream()
+        .collect(Collectors.toMap(Card::getId, Function.identity()));
+    log.info("Пользователь {} инициирует пакет из {} переводов по {} картам",
+        username, requests.size(), cards.size());
+
+    List<Transaction> transactions = new ArrayList<>(requests.size());
+    List<BatchItem> items = new ArrayList<>(requests.size());
+
+    for (TransferRequest request : requests) {
+      var fromCard = cards.get(request.fromCardId());
+      var toCard = cards.get(request.toCardId());
+
+      if (fromCard == null || toCard == null) {
+        items.add(new BatchItem(null, TransactionStatus.DECLINED, "Карта не найдена"));
+        continue;
+      }
+      if (!isOwnedBy(fromCard, username) || !isOwnedBy(toCard, username)) {
+        items.add(new BatchItem(null, TransactionStatus.DECLINED,
+            "Карты должны принадлежать одному пользователю"));
+        continue;
+      }
 
-    var fromCard = cardRepository.findByIdWithUserAndStatus(request.fromCardId())
+      var tx = new Transaction();
+      tx.setFromCard(fromCard);
+      tx.setToCard(toCard);
+      tx.setAmount(request.amount());
+
+      if (fromCard.getBalance().compareTo(request.amount()) < 0) {
+        tx.setStatus(TransactionStatus.FAILED);
+        items.add(new BatchItem(tx, TransactionStatus.FAILED, "Недостаточно средств для перевода"));
+      } else {
+        fromCard.setBalance(fromCard.getBalance().subtract(request.amount()));
+        toCard.setBalance(toCard.getBalance().add(request.amount()));
+        tx.setStatus(TransactionStatus.SUCCESS);
+        items.add(new BatchItem(tx, TransactionStatus.SUCCESS, "Transfer completed successfully"));
+      }
+      transactions.add(tx);
+    }
+
+    transactionRepository.saveAll(transactions);
+
+    List<BatchTransferItemResponse> responses = new ArrayList<>(items.size());
+    int succeeded = 0;
+    for (int i = 0; i < items.size(); i++) {
+      BatchItem item = items.get(i);
+      if (item.status() == TransactionStatus.SUCCESS) {
+        succeeded++;
+      }
+      responses.add(new BatchTransferItemResponse(i,
+          item.transaction() == null ? null : item.transaction().getId(),
+          item.status(), item.message()));
+    }
+    log.info("Пакет пользователя {}: успешно {}, отклонено {}",
+        username, succeeded, items.size() - succeeded);
+
+    return new BatchTransferResponse(succeeded, items.size() - succeeded, responses);
+  }
+
+  private Transaction transferLoadedCards(TransferRequest request, String username) {
+
+    Map<UUID, Card> cards = loadCards(request.fromCardId(), request.toCardId());
+
+    var fromCard = Optional.ofNullable(cards.get(request.fromCardId()))
         .orElseThrow(() -> new NotFoundException("Исходная карта с id " + request.fromCardId() + " не найдена"));
 
-    var toCard = cardRepository.findByIdWithUserAndStatus(request.toCardId())
+    var toCard = Optional.ofNullable(cards.get(request.toCardId()))
         .orElseThrow(() -> new NotFoundException("Карта получателя с id " + request.toCardId() + " не найдена"));
     log.info("Пользователь {} инициирует перевод с карты {} на карту {}",
         username, fromCard.getNumberEncrypted(), toCard.getNumberEncrypted());
 
-    if (!fromCard.getBankUser().getUsername().equals(username) ||
-        !toCard.getBankUser().getUsername().equals(username)) {
+    if (!isOwnedBy(fromCard, username) || !isOwnedBy(toCard, username)) {
       log.warn("Пользователь {} попытался перевести с чужой карты", username);
       throw new AccessDeniedException("Карты должны принадлежать одному пользователю");
     }
 
     if (fromCard.getBalance().compareTo(request.amount()) < 0) {
       log.warn("Недостаточно средств для перевода {} с карты {}", request.amount(), fromCard.getNumberEncrypted());
-      var tx = new Transaction();
-      tx.setFromCard(fromCard);
-      tx.setToCard(toCard);
-      tx.setAmount(request.amount());
-      tx.setStatus(TransactionStatus.FAILED);
-      transactionRepository.save(tx);
+      saveTransaction(fromCard, toCard, request.amount(), TransactionStatus.FAILED);
       throw new InsufficientBalanceException("Недостаточно средств для перевода");
     }
 
@@ -59,14 +159,86 @@ public class TransactionServiceImpl implements TransactionService {
     cardRepository.save(fromCard);
     cardRepository.save(toCard);
 
+    var tx = saveTransaction(fromCard, toCard, request.amount(), TransactionStatus.SUCCESS);
+    log.info("Успешный перевод {} с карты {} на карту {}", request.amount(), fromCard.getNumberEncrypted(), toCard.getNumberEncrypted());
+
+    return tx;
+  }
+
+  private Transaction transferAtomically(TransferRequest request, String username) {
+
+    UUID fromCardId = request.fromCardId();
+    UUID toCardId = request.toCardId();
+    List<UUID> cardIds = CardLockOrder.sorted(List.of(fromCardId, toCardId));
+
+    if (cardRepository.findIdsOwnedBy(cardIds, username).size() != cardIds.size()) {
+      rejectUnownedCards(fromCardId, toCardId, username);
+    }
+    log.info("Пользователь {} инициирует перевод с карты {} на карту {}", username, fromCardId, toCardId);
+
+    var fromCard = cardRepository.getReferenceById(fromCardId);
+    var toCard = cardRepository.getReferenceById(toCardId);
+
+    for (UUID cardId : cardIds) {
+      if (cardId.equals(fromCardId) && cardRepository.debit(fromCardId, request.amount()) == 0) {
+        log.warn("Недостаточно средств для перевода {} с карты {}", request.amount(), fromCardId);
+        saveTransaction(fromCard, toCard, request.amount(), TransactionStatus.FAILED);
+        throw new InsufficientBalanceException("Недостаточно средств для перевода");
+      }
+      if (cardId.equals(toCardId)) {
+        cardRepository.credit(toCardId, request.amount());
+      }
+    }
+
+    var tx = saveTransaction(fromCard, toCard, request.amount(), TransactionStatus.SUCCESS);
+    log.info("Успешный перевод {} с карты {} на карту {}", request.amount(), fromCardId, toCardId);
+
+    return tx;
+  }
+
+  private void rejectUnownedCards(UUID fromCardId, UUID toCardId, String username) {
+
+    if (!cardRepository.existsById(fromCardId)) {
+      throw new NotFoundException("Исходная карта с id " + fromCardId + " не найдена");
+    }
+    if (!cardRepository.existsById(toCardId)) {
+      throw new NotFoundException("Карта получателя с id " + toCardId + " не найдена");
+    }
+    log.warn("Пользователь {} попытался перевести с чужой карты", username);
+    throw new AccessDeniedException("Карты должны принадлежать одному пользователю");
+  }
+
+  private Transaction saveTransaction(Card fromCard, Card toCard, BigDecimal amount,
+      TransactionStatus status) {
+
     var tx = new Transaction();
     tx.setFromCard(fromCard);
     tx.setToCard(toCard);
-    tx.setAmount(request.amount());
-    tx.setStatus(TransactionStatus.SUCCESS);
+    tx.setAmount(amount);
+    tx.setStatus(status);
     transactionRepository.save(tx);
-    log.info("Успешный перевод {} с карты {} на карту {}", request.amount(), fromCard.getNumberEncrypted(), toCard.getNumberEncrypted());
 
-    return new TransactionResponse(tx.getId(), tx.getStatus(), "Transfer completed successfully");
+    return tx;
   }
+
+  private static boolean isOwnedBy(Card card, String username) {
+    return card.getBankUser().getUsername().equals(username);
+  }
+
+  private Map<UUID, Card> loadCards(UUID... cardIds) {
+
+    List<UUID> ids = Stream.of(cardIds).distinct().toList();
+
+    List<Card> cards = switch (transferProperties.lockingMode()) {
+      case PESSIMISTIC -> cardRepository.findAllByIdForUpdate(ids);
+      case OPTIMISTIC -> cardRepository.findAllById(ids);
+      case ATOMIC -> throw new IllegalStateException(
+          "В атомарном режиме карты не загружаются, перевод выполняется UPDATE-запросами");
+    };
+
+    return cards.stream()
+        .collect(Collectors.toMap(Card::getId, Function.identity()));
+  }
+
+  private record BatchItem(Transaction transaction, TransactionStatus status, String message) {}
 }
@@ -0,0 +1,112 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.config.TransferProperties;
+import com.example.bankcards.dto.request.TransferRequest;
+import com.example.bankcards.dto.response.TransactionResponse;
+import com.example.bankcards.entity.IdempotentTransfer;
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.repository.IdempotentTransferRepository;
+import com.example.bankcards.service.TransferIdempotencyService;
+import com.example.bankcards.util.AfterCommit;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+@Service
+@Slf4j
+public class TransferIdempotencyServiceImpl implements TransferIdempotencyService {
+
+  private static final int MAX_KEY_LENGTH = 100;
+
+  private final IdempotentTransferRepository idempotentTransferRepository;
+
+  private final Cache<String, StoredTransfer> recentTransfers;
+
+  public TransferIdempotencyServiceImpl(IdempotentTransferRepository idempotentTransferRepository,
+      TransferProperties transferProperties) {
+    this.idempotentTransferRepository = idempotentTransferRepository;
+    this.recentTransfers = Caffeine.newBuilder()
+        .maximumSize(transferProperties.idempotency().cacheSize())
+        .expireAfterWrite(transferProperties.idempotency().cacheTtl())
+        .build();
+  }
+
+  @Override
+  public Optional<TransactionResponse> findTransfer(String username, String idempotencyKey,
+      TransferRequest request) {
+
+    if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+      throw new BadRequestException(
+          "Idempotency-Key должен содержать от 1 до " + MAX_KEY_LENGTH + " символов");
+    }
+
+    String cacheKey = cacheKey(username, idempotencyKey);
+    StoredTransfer stored = recentTransfers.getIfPresent(cacheKey);
+
+    if (stored == null) {
+      stored = idempotentTransferRepository.findByUsernameAndIdempotencyKey(username, idempotencyKey)
+          .map(transfer -> new StoredTransfer(transfer.getRequestHash(), new TransactionResponse(
+              transfer.getTransactionId(), transfer.getStatus(), transfer.getMessage())))
+          .orElse(null);
+
+      if (stored == null) {
+        return Optional.empty();
+      }
+      recentTransfers.put(cacheKey, stored);
+    }
+
+    if (!stored.requestHash().equals(requestHash(request))) {
+      log.warn("Пользователь {} повторно использовал Idempotency-Key {} для другого перевода",
+          username, idempotencyKey);
+      throw new BadRequestException("Idempotency-Key уже использован для другого перевода");
+    }
+
+    return Optional.of(stored.response());
+  }
+
+  @Override
+  public void saveTransfer(String username, String idempotencyKey, TransferRequest request,
+      TransactionResponse response) {
+
+    StoredTransfer stored = new StoredTransfer(requestHash(request), response);
+
+    idempotentTransferRepository.save(IdempotentTransfer.builder()
+        .username(username)
+        .idempotencyKey(idempotencyKey)
+        .requestHash(stored.requestHash())
+        .transactionId(response.transactionId())
+        .status(response.status())
+        .message(response.message())
+        .build());
+
+    String cacheKey = cacheKey(username, idempotencyKey);
+
+    AfterCommit.run(() -> recentTransfers.put(cacheKey, stored));
+  }
+
+  private static String cacheKey(String username, String idempotencyKey) {
+    return username + ':' + idempotencyKey;
+  }
+
+  private static String requestHash(TransferRequest request) {
+
+    String fingerprint = request.fromCardId() + "|" + request.toCardId() + "|"
+        + request.amount().stripTrailingZeros().toPlainString();
+
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256")
+          .digest(fingerprint.getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(digest);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 недоступен", e);
+    }
+  }
+
+  private record StoredTransfer(String requestHash, TransactionResponse response) {}
+}
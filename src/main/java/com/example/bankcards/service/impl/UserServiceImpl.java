@@ -1,17 +1,31 @@
 package com.example.bankcards.service.impl;
 
+import com.example.bankcards.config.UserExportProperties;
+import com.example.bankcards.dto.projection.UserListItem;
 import com.example.bankcards.dto.request.UserRoleUpdateRequest;
+import com.example.bankcards.dto.response.CursorPageResponse;
 import com.example.bankcards.dto.response.MessageResponse;
 import com.example.bankcards.dto.response.UserResponse;
 import com.example.bankcards.entity.BankUser;
+import com.example.bankcards.entity.enums.UserRoleEnum;
 import com.example.bankcards.exception.NotFoundException;
+import com.example.bankcards.repository.UserExportJdbcRepository;
 import com.example.bankcards.repository.UserRepository;
-import com.example.bankcards.repository.UserRoleRepository;
+import com.example.bankcards.security.UserDetailsServiceImpl;
+import com.example.bankcards.security.UserRevocationRegistry;
+import com.example.bankcards.service.ReferenceDataService;
 import com.example.bankcards.service.UserService;
+import com.example.bankcards.util.KeysetCursor;
+import com.example.bankcards.util.KeysetPages;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,9 +34,18 @@ import org.springframework.transaction.annotation.Transactional;
 @Slf4j
 public class UserServiceImpl implements UserService {
 
+
   private final UserRepository userRepository;
 
-  private final UserRoleRepository userRoleRepository;
+  private final ReferenceDataService referenceDataService;
+
+  private final UserRevocationRegistry userRevocationRegistry;
+
+  private final UserDetailsServiceImpl userDetailsService;
+
+  private final UserExportJdbcRepository userExportRepository;
+
+  private final UserExportProperties userExportProperties;
 
   @Override
   public List<UserResponse> getAllUsers() {
@@ -33,6 +56,33 @@ public class UserServiceImpl implements UserService {
         .toList();
   }
 
+  @Override
+  public CursorPageResponse<UserResponse> scrollUsers(String cursor, int size) {
+
+    Limit limit = KeysetPages.lookAheadLimit(size);
+    if (cursor == null) {
+      return KeysetPages.toPage(userRepository.findFirstPage(limit), size,
+          UserServiceImpl::cursorOf, this::toResponse);
+    }
+
+    var after = KeysetCursor.decode(cursor);
+    List<UserListItem> users = userRepository.findNextPage(after.createdAt(), after.id(), limit);
+
+    return KeysetPages.toPage(users, size, UserServiceImpl::cursorOf, this::toResponse);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public void streamUsers(Consumer<UserResponse> action) {
+
+    long[] streamed = {0};
+    userExportRepository.forEachUser(userExportProperties.fetchSize(), user -> {
+      action.accept(toResponse(user));
+      streamed[0]++;
+    });
+    log.info("Выгружено пользователей: {}", streamed[0]);
+  }
+
   @Override
   public UserResponse getUserById(UUID userId) {
 
@@ -50,11 +100,18 @@ public class UserServiceImpl implements UserService {
     var user = userRepository.findById(userId)
         .orElseThrow(() -> new NotFoundException("Пользователь с id " + userId + " не найден"));
 
-    var role = userRoleRepository.findByName(request.role())
+    var role = Arrays.stream(UserRoleEnum.values())
+        .filter(value -> value.name().equals(request.role()))
+        .findFirst()
+        .map(referenceDataService::userRole)
         .orElseThrow(() -> new NotFoundException("Роль " + request.role() + " не найдена"));
 
+    Instant now = Instant.now();
     user.setRole(role);
+    user.setTokensValidAfter(now.atOffset(ZoneOffset.UTC));
     userRepository.save(user);
+    userRevocationRegistry.revokeTokensIssuedBefore(user.getUsername(), now);
+    userDetailsService.evict(user.getUsername());
 
     log.info("Роль пользователя {} изменена на {}", user.getUsername(), role.getName());
 
@@ -75,6 +132,8 @@ public class UserServiceImpl implements UserService {
 
     user.setEnabled(false);
     userRepository.save(user);
+    userRevocationRegistry.block(user.getUsername());
+    userDetailsService.evict(user.getUsername());
     log.info("Пользователь {} заблокирован", user.getUsername());
 
     return new MessageResponse("Пользователь заблокирован");
@@ -94,12 +153,23 @@ public class UserServiceImpl implements UserService {
 
     user.setEnabled(true);
     userRepository.save(user);
+    userRevocationRegistry.unblock(user.getUsername());
+    userDetailsService.evict(user.getUsername());
     log.info("Пользователь {} разблокирован", user.getUsername());
 
     return new MessageResponse("Пользователь разблокирован");
 
   }
 
+  private static KeysetCursor cursorOf(UserListItem user) {
+    return new KeysetCursor(user.createdAt(), user.id());
+  }
+
+  private UserResponse toResponse(UserListItem user) {
+
+    return new UserResponse(user.id(), user.username(), user.role(), user.enabled());
+  }
+
   private UserResponse mapToResponse(BankUser user) {
 
     return new UserResponse(user.getId(), user.getUsername(), user.getRole().getName(),
@@ -0,0 +1,51 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.config.EncryptionProperties;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.HexFormat;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+/**
+ * Детерминированный слепой индекс номера карты: HMAC-SHA256 с отдельным ключом. Позволяет
+ * искать карту по номеру и проверять дубликаты по индексу, не расшифровывая номера.
+ */
+@Service
+public class CardBlindIndexService {
+
+  private static final String ALGORITHM = "HmacSHA256";
+
+  private static final int MIN_KEY_LENGTH = 32;
+
+  private final ThreadLocal<Mac> macs;
+
+  public CardBlindIndexService(EncryptionProperties properties) {
+
+    if (!StringUtils.hasText(properties.blindIndexKey())) {
+      throw new IllegalStateException("Не задан ключ слепого индекса encryption.blind-index-key");
+    }
+    byte[] key = Base64.getDecoder().decode(properties.blindIndexKey());
+    if (key.length < MIN_KEY_LENGTH) {
+      throw new IllegalStateException("Ключ слепого индекса должен быть не короче 32 байт");
+    }
+    SecretKeySpec keySpec = new SecretKeySpec(key, ALGORITHM);
+
+    this.macs = ThreadLocal.withInitial(() -> {
+      try {
+        Mac mac = Mac.getInstance(ALGORITHM);
+        mac.init(keySpec);
+        return mac;
+      } catch (GeneralSecurityException e) {
+        throw new IllegalStateException("HmacSHA256 недоступен", e);
+      }
+    });
+  }
+
+  public String index(String pan) {
+    return HexFormat.of().formatHex(macs.get().doFinal(pan.getBytes(StandardCharsets.US_ASCII)));
+  }
+}
@@ -1,26 +1,49 @@
 package com.example.bankcards.util;
 
+import com.example.bankcards.config.EncryptionProperties;
 import com.google.crypto.tink.Aead;
 import com.google.crypto.tink.KeysetHandle;
+import com.google.crypto.tink.TinkJsonProtoKeysetFormat;
 import com.google.crypto.tink.aead.AeadConfig;
-import com.google.crypto.tink.aead.AeadKeyTemplates;
+import com.google.crypto.tink.subtle.AesGcmJce;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.security.GeneralSecurityException;
 import java.util.Base64;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
+@Slf4j
 @Service
 public class CardCryptoTinkService {
 
+  static final byte[] KEYSET_ASSOCIATED_DATA = "bankcards-keyset".getBytes(StandardCharsets.UTF_8);
+
+  private static final byte TINK_START_BYTE = 0x01;
+
+  private static final int TINK_PREFIX_SIZE = 5;
+
   private final Aead aead;
 
-  public CardCryptoTinkService() {
+  private final int primaryKeyId;
+
+  public CardCryptoTinkService(EncryptionProperties properties) {
     try {
       AeadConfig.register();
 
-      KeysetHandle handle = KeysetHandle.generateNew(AeadKeyTemplates.AES256_GCM);
+      if (!StringUtils.hasText(properties.masterKey())) {
+        throw new IllegalStateException("Не задан мастер-ключ encryption.master-key");
+      }
+      Aead masterKey = new AesGcmJce(Base64.getDecoder().decode(properties.masterKey()));
+
+      KeysetHandle handle = TinkJsonProtoKeysetFormat.parseEncryptedKeyset(
+          readKeyset(properties), masterKey, KEYSET_ASSOCIATED_DATA);
 
       this.aead = handle.getPrimitive(Aead.class);
+      this.primaryKeyId = handle.getPrimary().getId();
+      log.info("Загружен ключевой набор Tink, основной ключ {}", primaryKeyId);
 
     } catch (GeneralSecurityException e) {
 
@@ -41,5 +64,54 @@ public class CardCryptoTinkService {
     }
   }
 
-}
+  public String decrypt(String encryptedPan) {
+    try {
+
+      byte[] pt = aead.decrypt(Base64.getDecoder().decode(encryptedPan), null);
+
+      return new String(pt, StandardCharsets.UTF_8);
+
+    } catch (GeneralSecurityException e) {
+
+      throw new RuntimeException("Ошибка расшифровки PAN", e);
+    }
+  }
+
+  public int primaryKeyId() {
+    return primaryKeyId;
+  }
+
+  /**
+   * Проверяет по префиксу шифртекста Tink, зашифрован ли номер текущим основным ключом.
+   */
+  public boolean isEncryptedWithPrimary(String encryptedPan) {
+
+    byte[] ct = Base64.getDecoder().decode(encryptedPan);
+
+    return ct.length > TINK_PREFIX_SIZE
+        && ct[0] == TINK_START_BYTE
+        && ByteBuffer.wrap(ct, 1, 4).getInt() == primaryKeyId;
+  }
+
+  public String reencrypt(String encryptedPan) {
+    return encrypt(decrypt(encryptedPan));
+  }
+
+  private static String readKeyset(EncryptionProperties properties) {
 
+    if (StringUtils.hasText(properties.keyset())) {
+      return properties.keyset();
+    }
+    if (properties.keysetFile() == null || !properties.keysetFile().exists()) {
+      throw new IllegalStateException(
+          "Не задан ключевой набор: encryption.keyset или encryption.keyset-file");
+    }
+    try {
+      return properties.keysetFile().getContentAsString(StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      throw new IllegalStateException("Не удалось прочитать ключевой набор "
+          + properties.keysetFile().getDescription(), e);
+    }
+  }
+
+}
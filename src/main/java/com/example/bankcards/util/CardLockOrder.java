@@ -0,0 +1,24 @@
+package com.example.bankcards.util;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+public final class CardLockOrder {
+
+  public static final Comparator<UUID> COMPARATOR = Comparator
+      .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+      .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+  private CardLockOrder() {
+  }
+
+  public static List<UUID> sorted(Collection<UUID> cardIds) {
+
+    return cardIds.stream()
+        .distinct()
+        .sorted(COMPARATOR)
+        .toList();
+  }
+}
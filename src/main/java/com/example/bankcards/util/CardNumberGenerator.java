@@ -1,36 +1,53 @@
 package com.example.bankcards.util;
 
-import java.util.List;
-import java.util.Random;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+/**
+ * Генерирует номера карт МИР: префикс, 11 случайных цифр и контрольная цифра Луна.
+ * Уникальность номера проверяется вызывающим кодом по слепому индексу (cards.number_hash).
+ */
 @RequiredArgsConstructor
 @Component
 public class CardNumberGenerator {
 
-  private static final List<String> MIR_CARD_NUMBER_PREFIX = List.of("2200", "2201", "2202",
-      "2204");
+  private static final char[][] MIR_CARD_NUMBER_PREFIX = {
+      "2200".toCharArray(), "2201".toCharArray(), "2202".toCharArray(), "2204".toCharArray()};
 
-  private static final Random RANDOM = new Random();
+  private static final int CARD_NUMBER_LENGTH = 16;
+
+  private static final int PREFIX_LENGTH = 4;
+
+  private static final long ACCOUNT_NUMBER_BOUND = 100_000_000_000L;
 
   public String generateMirCard() {
 
-    StringBuilder cardNumber = new StringBuilder(
-        MIR_CARD_NUMBER_PREFIX.get(RANDOM.nextInt(MIR_CARD_NUMBER_PREFIX.size())));
+    long value = ThreadLocalSecureRandom.current()
+        .nextLong(MIR_CARD_NUMBER_PREFIX.length * ACCOUNT_NUMBER_BOUND);
 
-    int sumForLuhn = 0;
+    char[] cardNumber = new char[CARD_NUMBER_LENGTH];
+    System.arraycopy(MIR_CARD_NUMBER_PREFIX[(int) (value / ACCOUNT_NUMBER_BOUND)], 0,
+        cardNumber, 0, PREFIX_LENGTH);
 
-    int totalLength = 16;
-    while (cardNumber.length() < totalLength - 1) {
-      int digit = RANDOM.nextInt(10);
-      cardNumber.append(digit);
+    long accountNumber = value % ACCOUNT_NUMBER_BOUND;
+    for (int i = CARD_NUMBER_LENGTH - 2; i >= PREFIX_LENGTH; i--) {
+      cardNumber[i] = (char) ('0' + accountNumber % 10);
+      accountNumber /= 10;
     }
 
-    for (int i = 0; i < cardNumber.length(); i++) {
-      int digit = cardNumber.charAt(cardNumber.length() - 1 - i) - '0';
+    cardNumber[CARD_NUMBER_LENGTH - 1] =
+        (char) ('0' + luhnCheckDigit(cardNumber, CARD_NUMBER_LENGTH - 1));
+
+    return new String(cardNumber);
+  }
 
-      if (i % 2 == 0) {
+  static int luhnCheckDigit(char[] digits, int length) {
+
+    int sumForLuhn = 0;
+    for (int i = 0; i < length; i++) {
+      int digit = digits[length - 1 - i] - '0';
+
+      if ((i & 1) == 0) {
         digit *= 2;
         if (digit > 9) {
           digit -= 9;
@@ -39,9 +56,7 @@ public class CardNumberGenerator {
       sumForLuhn += digit;
     }
 
-    int checkDigit = (10 - (sumForLuhn % 10)) % 10;
-
-    return cardNumber.append(checkDigit).toString();
+    return (10 - sumForLuhn % 10) % 10;
   }
 
 }
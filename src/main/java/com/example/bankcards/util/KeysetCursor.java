@@ -0,0 +1,34 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.exception.BadRequestException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.UUID;
+
+public record KeysetCursor(OffsetDateTime createdAt, UUID id) {
+
+  private static final String SEPARATOR = "|";
+
+  public String encode() {
+
+    String raw = createdAt.toInstant() + SEPARATOR + id;
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static KeysetCursor decode(String cursor) {
+
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      int separator = raw.indexOf(SEPARATOR);
+      return new KeysetCursor(
+          Instant.parse(raw.substring(0, separator)).atOffset(ZoneOffset.UTC),
+          UUID.fromString(raw.substring(separator + 1)));
+    } catch (RuntimeException e) {
+      throw new BadRequestException("Некорректный курсор пагинации");
+    }
+  }
+}
@@ -0,0 +1,37 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.dto.response.CursorPageResponse;
+import com.example.bankcards.exception.BadRequestException;
+import java.util.List;
+import java.util.function.Function;
+import org.springframework.data.domain.Limit;
+
+/**
+ * Общая часть курсорной пагинации: запрос читает на одну строку больше размера страницы,
+ * лишняя строка отбрасывается и служит признаком следующей страницы.
+ */
+public final class KeysetPages {
+
+  public static final int MAX_SIZE = 100;
+
+  private KeysetPages() {
+  }
+
+  public static Limit lookAheadLimit(int size) {
+
+    if (size < 1 || size > MAX_SIZE) {
+      throw new BadRequestException("Размер страницы должен быть от 1 до " + MAX_SIZE);
+    }
+    return Limit.of(size + 1);
+  }
+
+  public static <T, R> CursorPageResponse<R> toPage(List<T> rows, int size,
+      Function<T, KeysetCursor> cursorOf, Function<T, R> mapper) {
+
+    boolean hasNext = rows.size() > size;
+    List<T> content = hasNext ? rows.subList(0, size) : rows;
+    String nextCursor = hasNext ? cursorOf.apply(content.get(content.size() - 1)).encode() : null;
+
+    return new CursorPageResponse<>(content.stream().map(mapper).toList(), nextCursor, hasNext);
+  }
+}
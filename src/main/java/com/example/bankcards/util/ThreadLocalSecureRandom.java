@@ -0,0 +1,30 @@
+package com.example.bankcards.util;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+
+/**
+ * Криптостойкий генератор на поток. Используется DRBG: в отличие от NativePRNG,
+ * экземпляры которого на Linux делят одну глобальную блокировку, отдельные экземпляры
+ * DRBG не конкурируют между собой.
+ */
+public final class ThreadLocalSecureRandom {
+
+  private static final ThreadLocal<SecureRandom> RANDOM =
+      ThreadLocal.withInitial(ThreadLocalSecureRandom::newRandom);
+
+  private ThreadLocalSecureRandom() {
+  }
+
+  public static SecureRandom current() {
+    return RANDOM.get();
+  }
+
+  private static SecureRandom newRandom() {
+    try {
+      return SecureRandom.getInstance("DRBG");
+    } catch (NoSuchAlgorithmException e) {
+      return new SecureRandom();
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package com.example.bankcards.util;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.uuid.UuidValueGenerator;
+
+/**
+ * Генератор UUID версии 7 (RFC 9562): 48 бит времени в миллисекундах, 12-битный счётчик
+ * внутри миллисекунды и 62 случайных бита. Значения монотонно растут в пределах JVM,
+ * поэтому новые строки дописываются в правый край B-tree индекса первичного ключа.
+ */
+public class UuidV7Generator implements UuidValueGenerator {
+
+  private static final int COUNTER_BITS = 12;
+
+  private static final AtomicLong LAST_TIMESTAMP_AND_COUNTER = new AtomicLong();
+
+  @Override
+  public UUID generateUuid(SharedSessionContractImplementor session) {
+    return next();
+  }
+
+  public static UUID next() {
+
+    long now = System.currentTimeMillis() << COUNTER_BITS;
+    long timestampAndCounter = LAST_TIMESTAMP_AND_COUNTER.updateAndGet(
+        last -> Math.max(now, last + 1));
+
+    long mostSigBits = (timestampAndCounter >>> COUNTER_BITS) << 16
+        | 0x7000L
+        | timestampAndCounter & 0x0FFFL;
+    long leastSigBits = ThreadLocalSecureRandom.current().nextLong()
+        & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+
+    return new UUID(mostSigBits, leastSigBits);
+  }
+}
@@ -0,0 +1,55 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.BankApplication;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+final class BenchmarkEnvironment implements AutoCloseable {
+
+  private static final String POSTGRES_IMAGE = "postgres:15";
+
+  private final PostgreSQLContainer<?> postgres;
+
+  private final ConfigurableApplicationContext context;
+
+  private BenchmarkEnvironment(PostgreSQLContainer<?> postgres,
+      ConfigurableApplicationContext context) {
+    this.postgres = postgres;
+    this.context = context;
+  }
+
+  static BenchmarkEnvironment start(String... extraProperties) {
+    PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(POSTGRES_IMAGE);
+    postgres.start();
+
+    List<String> properties = new ArrayList<>(List.of(
+        "spring.datasource.url=" + postgres.getJdbcUrl(),
+        "spring.datasource.username=" + postgres.getUsername(),
+        "spring.datasource.password=" + postgres.getPassword(),
+        "spring.datasource.hikari.maximum-pool-size=64",
+        "spring.jpa.show-sql=false",
+        "server.port=0",
+        "logging.level.root=WARN"
+    ));
+    properties.addAll(List.of(extraProperties));
+
+    ConfigurableApplicationContext context = new SpringApplicationBuilder(BankApplication.class)
+        .properties(properties.toArray(String[]::new))
+        .run();
+
+    return new BenchmarkEnvironment(postgres, context);
+  }
+
+  <T> T bean(Class<T> type) {
+    return context.getBean(type);
+  }
+
+  @Override
+  public void close() {
+    context.close();
+    postgres.stop();
+  }
+}
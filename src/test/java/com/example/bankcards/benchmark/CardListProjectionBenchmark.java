@@ -0,0 +1,108 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.dto.response.CardResponse;
+import com.example.bankcards.dto.response.CursorPageResponse;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.service.CardService;
+import com.example.bankcards.util.CardMaskService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Задержка и аллокации при чтении страницы из 100 карт: управляемые сущности
+ * с {@code JOIN FETCH} против проекции в record.
+ * Аллокации на операцию — {@code gc.alloc.rate.norm} в выводе профилировщика gc.
+ * Запуск: {@code mvn -Pbenchmark test -Dbenchmark=CardListProjectionBenchmark} (нужен Docker).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class CardListProjectionBenchmark {
+
+  private static final int PAGE_SIZE = 100;
+
+  private BenchmarkEnvironment environment;
+
+  private CardService cardService;
+
+  private CardMaskService cardMaskService;
+
+  private EntityManager entityManager;
+
+  private TransactionTemplate transactionTemplate;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    environment = BenchmarkEnvironment.start();
+    cardService = environment.bean(CardService.class);
+    cardMaskService = environment.bean(CardMaskService.class);
+    entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+        environment.bean(EntityManagerFactory.class));
+    transactionTemplate = environment.bean(TransactionTemplate.class);
+
+    JdbcTemplate jdbc = environment.bean(JdbcTemplate.class);
+    jdbc.update("""
+        INSERT INTO users (username, password, full_name, role_id)
+        SELECT 'bench_user_' || g, 'not-a-hash', 'BENCH USER', 'bbbbbbbb-bbbb-bbbb-bbbb-bbbbbbbbbbbb'
+        FROM generate_series(1, 2000) g
+        """);
+    jdbc.update("""
+        INSERT INTO cards (number_encrypted, last_four_digits, holder_name, expiry_date,
+                           status_id, balance, user_id, created_at)
+        SELECT 'bench_' || u.username || '_' || g, lpad((random() * 9999)::int::text, 4, '0'),
+               u.full_name, DATE '2030-12-31', '11111111-1111-1111-1111-111111111111', 100, u.id,
+               now() - g * INTERVAL '1 second'
+        FROM users u
+        CROSS JOIN generate_series(1, 100) g
+        WHERE u.username LIKE 'bench_user_%'
+        """);
+    jdbc.execute("VACUUM ANALYZE cards");
+  }
+
+  @Benchmark
+  public List<CardResponse> entityPage() {
+    return transactionTemplate.execute(status -> entityManager.createQuery("""
+            SELECT c FROM Card c
+            JOIN FETCH c.bankUser bu
+            JOIN FETCH c.status s
+            ORDER BY c.createdAt DESC, c.id DESC
+            """, Card.class)
+        .setMaxResults(PAGE_SIZE)
+        .getResultStream()
+        .map(card -> new CardResponse("", card.getId(),
+            cardMaskService.mask(card.getLastFourDigits()), card.getHolderName(),
+            card.getExpiryDate(), card.getBalance(), card.getStatus().getName(),
+            card.getBankUser().getId()))
+        .toList());
+  }
+
+  @Benchmark
+  public CursorPageResponse<CardResponse> projectionPage() {
+    return transactionTemplate.execute(status -> cardService.scrollAllCards(null, PAGE_SIZE));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    environment.close();
+  }
+}
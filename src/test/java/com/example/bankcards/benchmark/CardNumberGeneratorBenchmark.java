@@ -0,0 +1,87 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.util.CardNumberGenerator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Пропускная способность генератора номеров карт (номеров в секунду): прежняя схема
+ * с общим java.util.Random и StringBuilder против SecureRandom на поток и расчёта Луна
+ * по char[]. Варианты с 4 потоками показывают конкуренцию за общий генератор;
+ * на одно ядро — результат, делённый на число потоков.
+ * Запуск: {@code mvn -Pbenchmark test -Dbenchmark=CardNumberGeneratorBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CardNumberGeneratorBenchmark {
+
+  private static final List<String> MIR_CARD_NUMBER_PREFIX = List.of("2200", "2201", "2202",
+      "2204");
+
+  private static final Random RANDOM = new Random();
+
+  private final CardNumberGenerator generator = new CardNumberGenerator();
+
+  @Benchmark
+  public String legacySharedRandom() {
+    return legacyGenerateMirCard();
+  }
+
+  @Benchmark
+  public String perThreadSecureRandom() {
+    return generator.generateMirCard();
+  }
+
+  @Benchmark
+  @Threads(4)
+  public String legacySharedRandomContended() {
+    return legacyGenerateMirCard();
+  }
+
+  @Benchmark
+  @Threads(4)
+  public String perThreadSecureRandomContended() {
+    return generator.generateMirCard();
+  }
+
+  private static String legacyGenerateMirCard() {
+
+    StringBuilder cardNumber = new StringBuilder(
+        MIR_CARD_NUMBER_PREFIX.get(RANDOM.nextInt(MIR_CARD_NUMBER_PREFIX.size())));
+
+    int sumForLuhn = 0;
+
+    while (cardNumber.length() < 15) {
+      cardNumber.append(RANDOM.nextInt(10));
+    }
+
+    for (int i = 0; i < cardNumber.length(); i++) {
+      int digit = cardNumber.charAt(cardNumber.length() - 1 - i) - '0';
+
+      if (i % 2 == 0) {
+        digit *= 2;
+        if (digit > 9) {
+          digit -= 9;
+        }
+      }
+      sumForLuhn += digit;
+    }
+
+    return cardNumber.append((10 - (sumForLuhn % 10)) % 10).toString();
+  }
+}
@@ -0,0 +1,104 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.dto.response.CardResponse;
+import com.example.bankcards.service.CardService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Задержка поиска карт по последним цифрам номера на 5 млн карт
+ * с триграммным индексом и без него. Короткие строки (1–2 символа) допустимы только в поиске
+ * по своим картам, который ограничен индексом (user_id, last_four_digits).
+ * Запуск: {@code mvn -Pbenchmark test -Dbenchmark=CardSearchBenchmark} (нужен Docker).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class CardSearchBenchmark {
+
+  private static final int USERS = 50_000;
+
+  private static final int CARDS_PER_USER = 100;
+
+  private static final Pageable PAGE = PageRequest.of(0, 20);
+
+  @Param({"SEQ_SCAN", "TRIGRAM"})
+  private String index;
+
+  private BenchmarkEnvironment environment;
+
+  private CardService cardService;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    environment = BenchmarkEnvironment.start();
+    cardService = environment.bean(CardService.class);
+
+    JdbcTemplate jdbc = environment.bean(JdbcTemplate.class);
+    jdbc.update("""
+        INSERT INTO users (username, password, full_name, role_id)
+        SELECT 'bench_user_' || g, 'not-a-hash', 'BENCH USER', 'bbbbbbbb-bbbb-bbbb-bbbb-bbbbbbbbbbbb'
+        FROM generate_series(1, ?) g
+        """, USERS);
+    jdbc.update("""
+        INSERT INTO cards (number_encrypted, last_four_digits, holder_name, expiry_date,
+                           status_id, balance, user_id)
+        SELECT 'bench_' || u.username || '_' || g, lpad((random() * 9999)::int::text, 4, '0'),
+               u.full_name, DATE '2030-12-31', '11111111-1111-1111-1111-111111111111', 100, u.id
+        FROM users u
+        CROSS JOIN generate_series(1, ?) g
+        WHERE u.username LIKE 'bench_user_%'
+        """, CARDS_PER_USER);
+    if ("SEQ_SCAN".equals(index)) {
+      jdbc.execute("DROP INDEX idx_cards_last_four_trgm");
+    }
+    jdbc.execute("VACUUM ANALYZE cards");
+  }
+
+  @Benchmark
+  public Page<CardResponse> searchAllCards() {
+    return cardService.getAllCards(randomDigits(3), PAGE);
+  }
+
+  @Benchmark
+  public Page<CardResponse> searchAllCardsByLastFour() {
+    return cardService.getAllCards(randomDigits(4), PAGE);
+  }
+
+  @Benchmark
+  public Page<CardResponse> searchUserCardsShortTerm() {
+    String username = "bench_user_" + (ThreadLocalRandom.current().nextInt(USERS) + 1);
+    return cardService.getUserCards(username, randomDigits(1), PAGE);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    environment.close();
+  }
+
+  private static String randomDigits(int length) {
+    int bound = (int) Math.pow(10, length);
+    String value = Integer.toString(ThreadLocalRandom.current().nextInt(bound));
+    return "0".repeat(length - value.length()) + value;
+  }
+}
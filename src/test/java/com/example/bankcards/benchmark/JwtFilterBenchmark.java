@@ -0,0 +1,115 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.config.AuthProperties;
+import com.example.bankcards.security.JwtAuthenticationFilter;
+import com.example.bankcards.security.JwtToken;
+import com.example.bankcards.security.UserDetailsServiceImpl;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Стоимость аутентификации одного запроса в JwtAuthenticationFilter:
+ * прежняя схема (ключ и парсер на каждый вызов, подпись проверяется дважды)
+ * против однократного разбора токена. Загрузка пользователя заменена заглушкой.
+ * Запуск: {@code mvn -Pbenchmark test -Dbenchmark=JwtFilterBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+  private static final String SECRET = "MySuperSecretKeyThatIsAtLeast32BytesLong!!";
+
+  private static final UserDetails USER = new User("user1", "password",
+      List.of(new SimpleGrantedAuthority("ROLE_USER")));
+
+  private UserDetailsServiceImpl userDetailsService;
+
+  private JwtAuthenticationFilter filter;
+
+  private String token;
+
+  @Setup
+  public void setUp() {
+    JwtToken jwtToken = new JwtToken(SECRET, 3_600_000L, 100);
+    AuthProperties authProperties = new AuthProperties(AuthProperties.Mode.DATABASE,
+        Duration.ofSeconds(30), new AuthProperties.UserCache(100, Duration.ofMinutes(5)),
+        new AuthProperties.PasswordHashing(10, 4, 32, Duration.ofSeconds(5)));
+    userDetailsService = new UserDetailsServiceImpl(null, authProperties,
+        new SimpleMeterRegistry()) {
+      @Override
+      public UserDetails loadUserByUsername(String username) {
+        return USER;
+      }
+    };
+    filter = new JwtAuthenticationFilter(jwtToken, userDetailsService, null, authProperties);
+    token = jwtToken.generatorToken(USER);
+  }
+
+  @Benchmark
+  public Object parseOnce() throws ServletException, IOException {
+    SecurityContextHolder.clearContext();
+    filter.doFilter(request(), new MockHttpServletResponse(), new MockFilterChain());
+    return SecurityContextHolder.getContext().getAuthentication();
+  }
+
+  @Benchmark
+  public Object parsePerCall() {
+    SecurityContextHolder.clearContext();
+    request();
+    if (validateWithFreshParser(token)) {
+      String username = Jwts.parserBuilder()
+          .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+          .build()
+          .parseClaimsJws(token)
+          .getBody()
+          .getSubject();
+      UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+      SecurityContextHolder.getContext().setAuthentication(
+          new UsernamePasswordAuthenticationToken(userDetails, null,
+              userDetails.getAuthorities()));
+    }
+    return SecurityContextHolder.getContext().getAuthentication();
+  }
+
+  private static boolean validateWithFreshParser(String token) {
+    Jwts.parserBuilder()
+        .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+        .build()
+        .parseClaimsJws(token);
+    return true;
+  }
+
+  private MockHttpServletRequest request() {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/user/cards");
+    request.addHeader("Authorization", "Bearer " + token);
+    return request;
+  }
+}
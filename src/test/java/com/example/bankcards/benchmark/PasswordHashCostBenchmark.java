@@ -0,0 +1,58 @@
+package com.example.bankcards.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Задержка входа (проверка пароля в DaoAuthenticationProvider) для разных стоимостей BCrypt.
+ * Перцентили p99 в отчёте помогают выбрать bank.auth.password-hashing.strength под бюджет входа.
+ * Запуск: {@code mvn -Pbenchmark test -Dbenchmark=PasswordHashCostBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class PasswordHashCostBenchmark {
+
+  private static final String PASSWORD = "ChangeMe123!";
+
+  @Param({"10", "11", "12", "13"})
+  private int strength;
+
+  private DaoAuthenticationProvider provider;
+
+  @Setup
+  public void setUp() {
+    BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+    String hash = encoder.encode(PASSWORD);
+
+    provider = new DaoAuthenticationProvider();
+    provider.setPasswordEncoder(encoder);
+    provider.setUserDetailsService(username -> new User(username, hash,
+        List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+  }
+
+  @Benchmark
+  public Authentication login() {
+    return provider.authenticate(new UsernamePasswordAuthenticationToken("user1", PASSWORD));
+  }
+}
@@ -0,0 +1,141 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.dto.request.CreateCardRequest;
+import com.example.bankcards.dto.request.TransferRequest;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.service.CardService;
+import com.example.bankcards.service.TransactionService;
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Переводы в обе стороны между одной парой карт при 1, 8 и 64 потоках
+ * в каждом режиме блокировки.
+ * После прогона проверяется, что итоговые балансы совпадают с числом успешных переводов.
+ * Запуск: {@code mvn -Pbenchmark test -Dbenchmark=TransferContentionBenchmark} (нужен Docker).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class TransferContentionBenchmark {
+
+  private static final UUID OWNER_ID = UUID.fromString("88888888-8888-8888-8888-888888888888");
+
+  private static final String OWNER_USERNAME = "user1";
+
+  private static final BigDecimal AMOUNT = new BigDecimal("0.01");
+
+  private final AtomicLong forwardTransfers = new AtomicLong();
+
+  private final AtomicLong backwardTransfers = new AtomicLong();
+
+  private final AtomicLong failedTransfers = new AtomicLong();
+
+  @Param({"PESSIMISTIC", "OPTIMISTIC", "ATOMIC"})
+  private String lockingMode;
+
+  private BenchmarkEnvironment environment;
+
+  private TransactionService transactionService;
+
+  private CardRepository cardRepository;
+
+  private UUID cardA;
+
+  private UUID cardB;
+
+  private BigDecimal initialBalanceA;
+
+  private BigDecimal initialBalanceB;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    environment = BenchmarkEnvironment.start("bank.transfer.locking-mode=" + lockingMode);
+    transactionService = environment.bean(TransactionService.class);
+    cardRepository = environment.bean(CardRepository.class);
+
+    CardService cardService = environment.bean(CardService.class);
+    cardA = cardService.createCard(new CreateCardRequest(OWNER_ID)).id();
+    cardB = cardService.createCard(new CreateCardRequest(OWNER_ID)).id();
+
+    initialBalanceA = balanceOf(cardA);
+    initialBalanceB = balanceOf(cardB);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public void transfer1Thread() {
+    transferInRandomDirection();
+  }
+
+  @Benchmark
+  @Threads(8)
+  public void transfer8Threads() {
+    transferInRandomDirection();
+  }
+
+  @Benchmark
+  @Threads(64)
+  public void transfer64Threads() {
+    transferInRandomDirection();
+  }
+
+  @TearDown(Level.Trial)
+  public void verifyBalancesAndTearDown() {
+    BigDecimal net = AMOUNT.multiply(
+        BigDecimal.valueOf(backwardTransfers.get() - forwardTransfers.get()));
+    BigDecimal finalBalanceA = balanceOf(cardA);
+    BigDecimal finalBalanceB = balanceOf(cardB);
+
+    boolean consistent = finalBalanceA.compareTo(initialBalanceA.add(net)) == 0
+        && finalBalanceB.compareTo(initialBalanceB.subtract(net)) == 0;
+
+    System.out.printf("%nA->B: %d, B->A: %d, failed: %d, balances consistent: %s%n",
+        forwardTransfers.get(), backwardTransfers.get(), failedTransfers.get(), consistent);
+
+    environment.close();
+
+    if (!consistent) {
+      throw new IllegalStateException("Lost update: A=" + finalBalanceA + ", B=" + finalBalanceB
+          + ", expected net change " + net);
+    }
+  }
+
+  private void transferInRandomDirection() {
+    boolean forward = ThreadLocalRandom.current().nextBoolean();
+    TransferRequest request = forward
+        ? new TransferRequest(cardA, cardB, AMOUNT)
+        : new TransferRequest(cardB, cardA, AMOUNT);
+
+    try {
+      transactionService.transfer(request, OWNER_USERNAME);
+      (forward ? forwardTransfers : backwardTransfers).incrementAndGet();
+    } catch (RuntimeException ex) {
+      failedTransfers.incrementAndGet();
+    }
+  }
+
+  private BigDecimal balanceOf(UUID cardId) {
+    return cardRepository.findById(cardId).orElseThrow().getBalance();
+  }
+}
@@ -0,0 +1,104 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.util.UuidV7Generator;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Скорость вставки в таблицу с UUID-ключом и размер индекса первичного ключа
+ * для случайных UUID (v4) и упорядоченных по времени UUID (v7).
+ * Запуск: {@code mvn -Pbenchmark test -Dbenchmark=UuidKeyInsertBenchmark} (нужен Docker).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class UuidKeyInsertBenchmark {
+
+  private static final int BATCH_SIZE = 1000;
+
+  @Param({"RANDOM", "V7"})
+  private String keyType;
+
+  private PostgreSQLContainer<?> postgres;
+
+  private Connection connection;
+
+  private PreparedStatement insert;
+
+  @Setup(Level.Trial)
+  public void setUp() throws SQLException {
+    postgres = new PostgreSQLContainer<>("postgres:15");
+    postgres.start();
+
+    connection = DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(),
+        postgres.getPassword());
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("""
+          CREATE TABLE transactions_bench (
+              id UUID PRIMARY KEY,
+              amount NUMERIC(15,2) NOT NULL,
+              created_at TIMESTAMPTZ DEFAULT now()
+          )
+          """);
+    }
+    connection.setAutoCommit(false);
+    insert = connection.prepareStatement(
+        "INSERT INTO transactions_bench (id, amount) VALUES (?, 1.00)");
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH_SIZE)
+  public void insertBatch() throws SQLException {
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      insert.setObject(1, nextKey());
+      insert.addBatch();
+    }
+    insert.executeBatch();
+    connection.commit();
+  }
+
+  @TearDown(Level.Trial)
+  public void reportIndexSizeAndTearDown() throws SQLException {
+    try (Statement statement = connection.createStatement();
+        ResultSet rs = statement.executeQuery("""
+            SELECT count(*),
+                   pg_size_pretty(pg_relation_size('transactions_bench_pkey')),
+                   pg_relation_size('transactions_bench_pkey') / greatest(count(*), 1)
+            FROM transactions_bench
+            """)) {
+      rs.next();
+      System.out.printf("%n%s keys: %d rows, primary key index %s (%d bytes/row)%n",
+          keyType, rs.getLong(1), rs.getString(2), rs.getLong(3));
+    }
+    connection.close();
+    postgres.stop();
+  }
+
+  private UUID nextKey() {
+    return "V7".equals(keyType) ? UuidV7Generator.next() : UUID.randomUUID();
+  }
+}
@@ -0,0 +1,59 @@
+package com.example.bankcards.config;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+class AsyncTimeoutInterceptorTest {
+
+  private final AsyncTimeoutInterceptor interceptor = new AsyncTimeoutInterceptor(
+      Map.of(WebAsyncConfig.BULK_ISSUANCE_PATH, Duration.ofMinutes(10),
+          WebAsyncConfig.CARD_EXPORT_PATH, Duration.ofMinutes(30)));
+
+  @Test
+  @DisplayName("Таймаут массового выпуска задаётся только для его эндпоинта")
+  void testBeforeConcurrentHandling_BulkIssuance() {
+    AsyncWebRequest request = requestFor(WebAsyncConfig.BULK_ISSUANCE_PATH);
+
+    interceptor.beforeConcurrentHandling(request, () -> null);
+
+    verify(request).setTimeout(600_000L);
+  }
+
+  @Test
+  @DisplayName("Выгрузка карт получает собственный таймаут")
+  void testBeforeConcurrentHandling_CardExport() {
+    AsyncWebRequest request = requestFor(WebAsyncConfig.CARD_EXPORT_PATH);
+
+    interceptor.beforeConcurrentHandling(request, () -> null);
+
+    verify(request).setTimeout(1_800_000L);
+  }
+
+  @Test
+  @DisplayName("Для остальных эндпоинтов таймаут по умолчанию не меняется")
+  void testBeforeConcurrentHandling_OtherPath() {
+    AsyncWebRequest request = requestFor("/api/v1/admin/cards/all");
+
+    interceptor.beforeConcurrentHandling(request, () -> null);
+
+    verify(request, never()).setTimeout(any());
+  }
+
+  private static AsyncWebRequest requestFor(String pattern) {
+    AsyncWebRequest request = mock(AsyncWebRequest.class);
+    when(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+        RequestAttributes.SCOPE_REQUEST)).thenReturn(pattern);
+    return request;
+  }
+}
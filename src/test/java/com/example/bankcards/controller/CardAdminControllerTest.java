@@ -1,34 +1,53 @@
 package com.example.bankcards.controller;
 
 import com.example.bankcards.controller.admin.CardAdminController;
+import com.example.bankcards.dto.request.BulkCreateCardRequest;
+import com.example.bankcards.dto.request.CardNumberLookupRequest;
 import com.example.bankcards.dto.request.CreateCardRequest;
+import com.example.bankcards.dto.response.BulkCardIssueItemResponse;
 import com.example.bankcards.dto.response.CardResponse;
 import com.example.bankcards.dto.response.CreateCardResponse;
+import com.example.bankcards.dto.response.CursorPageResponse;
 import com.example.bankcards.dto.response.MessageResponse;
+import com.example.bankcards.entity.enums.CardExportFormat;
+import com.example.bankcards.entity.enums.CardIssueStatus;
 import com.example.bankcards.entity.enums.CardStatusEnum;
+import com.example.bankcards.service.CardExportService;
+import com.example.bankcards.service.CardIssuanceService;
 import com.example.bankcards.service.CardService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -58,6 +77,15 @@ class CardAdminControllerTest {
   @Mock
   private CardService cardService;
 
+  @Mock
+  private CardIssuanceService cardIssuanceService;
+
+  @Mock
+  private CardExportService cardExportService;
+
+  @Spy
+  private ObjectMapper objectMapper = new ObjectMapper();
+
   @Mock
   private Pageable pageable;
 
@@ -129,6 +157,18 @@ class CardAdminControllerTest {
     verify(cardService).getAllCards(null, pageable);
   }
 
+  @Test
+  @DisplayName("Должен вернуть страницу всех карт по курсору")
+  void shouldSuccessfullyScrollAllCards() {
+    var expected = new CursorPageResponse<>(List.of(cardResponse), "next", true);
+    when(cardService.scrollAllCards("cursor", 20)).thenReturn(expected);
+
+    CursorPageResponse<CardResponse> actual = cardAdminController.scrollAllCards("cursor", 20);
+
+    assertEquals(expected, actual);
+    verify(cardService).scrollAllCards("cursor", 20);
+  }
+
   @Test
   @DisplayName("Должен успешно получить пустой список карт")
   void shouldSuccessfullyGetEmptyCardsList() {
@@ -157,6 +197,18 @@ class CardAdminControllerTest {
     verify(cardService).usersCards(TEST_CARD_ID);
   }
 
+  @Test
+  @DisplayName("Должен найти карту по номеру")
+  void shouldFindCardByNumber() {
+    when(cardService.findCardByNumber("2200123456789010")).thenReturn(cardResponse);
+
+    ResponseEntity<CardResponse> response = cardAdminController.findCardByNumber(
+        new CardNumberLookupRequest("2200123456789010"));
+
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(cardResponse, response.getBody());
+  }
+
   @Test
   @DisplayName("Должен успешно создать карту")
   void shouldSuccessfullyCreateCard() {
@@ -173,6 +225,58 @@ class CardAdminControllerTest {
     verify(cardService).createCard(createCardRequest);
   }
 
+  @Test
+  @DisplayName("Должен выпустить карты пакетом и вернуть результаты построчно в NDJSON")
+  void shouldStreamBulkIssuanceResults() throws Exception {
+    UUID missingUserId = UUID.randomUUID();
+    doAnswer(invocation -> {
+      Consumer<BulkCardIssueItemResponse> results = invocation.getArgument(1);
+      results.accept(new BulkCardIssueItemResponse(0, TEST_USER_ID, CardIssueStatus.CREATED,
+          TEST_CARD_ID, TEST_NUMBER_ENCRYPTED, "Карта создана!"));
+      results.accept(new BulkCardIssueItemResponse(1, missingUserId, CardIssueStatus.FAILED,
+          null, null, "Пользователь не найден"));
+      return null;
+    }).when(cardIssuanceService).issueCards(eq(List.of(TEST_USER_ID, missingUserId)), any());
+
+    ResponseEntity<StreamingResponseBody> response = cardAdminController.createCards(
+        new BulkCreateCardRequest(List.of(TEST_USER_ID, missingUserId)));
+    var out = new ByteArrayOutputStream();
+    response.getBody().writeTo(out);
+
+    assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+    String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+    assertEquals(2, lines.length);
+    assertEquals("CREATED", objectMapper.readTree(lines[0]).get("status").asText());
+    assertEquals(TEST_CARD_ID.toString(), objectMapper.readTree(lines[0]).get("cardId").asText());
+    assertEquals("FAILED", objectMapper.readTree(lines[1]).get("status").asText());
+  }
+
+  @Test
+  @DisplayName("Должен выгрузить карты потоком в CSV как вложение")
+  void shouldStreamCardExportAsCsv() throws Exception {
+    ResponseEntity<StreamingResponseBody> response =
+        cardAdminController.exportCards(CardExportFormat.CSV);
+    var out = new ByteArrayOutputStream();
+    response.getBody().writeTo(out);
+
+    assertEquals("text/csv;charset=UTF-8", response.getHeaders().getContentType().toString());
+    assertEquals("attachment; filename=\"cards.csv\"",
+        response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION));
+    verify(cardExportService).exportCards(CardExportFormat.CSV, out);
+  }
+
+  @Test
+  @DisplayName("Должен выгрузить карты потоком в NDJSON")
+  void shouldStreamCardExportAsNdjson() throws Exception {
+    ResponseEntity<StreamingResponseBody> response =
+        cardAdminController.exportCards(CardExportFormat.NDJSON);
+    var out = new ByteArrayOutputStream();
+    response.getBody().writeTo(out);
+
+    assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+    verify(cardExportService).exportCards(CardExportFormat.NDJSON, out);
+  }
+
   @Test
   @DisplayName("Должен успешно активировать карту")
   void shouldSuccessfullyActivateCard() {
@@ -3,6 +3,7 @@ package com.example.bankcards.controller;
 import com.example.bankcards.controller.user.CardUserController;
 import com.example.bankcards.dto.response.BalanceResponse;
 import com.example.bankcards.dto.response.CardResponse;
+import com.example.bankcards.dto.response.CursorPageResponse;
 import com.example.bankcards.dto.response.MessageResponse;
 import com.example.bankcards.service.CardService;
 import org.junit.jupiter.api.BeforeEach;
@@ -170,6 +171,19 @@ class CardUserControllerTest {
     verify(cardService).getUserCards(TEST_USERNAME, null, pageable);
   }
 
+  @Test
+  @DisplayName("Должен вернуть первую страницу карт пользователя по курсору")
+  void shouldSuccessfullyScrollUserCards() {
+    var expected = new CursorPageResponse<>(List.of(cardResponse), null, false);
+    when(cardService.scrollUserCards(TEST_USERNAME, null, 20)).thenReturn(expected);
+
+    CursorPageResponse<CardResponse> actual = cardUserController.scrollMyCards(authentication,
+        null, 20);
+
+    assertEquals(expected, actual);
+    verify(cardService).scrollUserCards(TEST_USERNAME, null, 20);
+  }
+
   @Test
   @DisplayName("Должен успешно получить пустой список карт пользователя")
   void shouldSuccessfullyGetEmptyUserCards() {
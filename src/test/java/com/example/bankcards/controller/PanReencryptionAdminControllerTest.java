@@ -0,0 +1,52 @@
+package com.example.bankcards.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+import com.example.bankcards.controller.admin.PanReencryptionAdminController;
+import com.example.bankcards.dto.response.PanReencryptionStatusResponse;
+import com.example.bankcards.service.PanReencryptionService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+@ExtendWith(MockitoExtension.class)
+class PanReencryptionAdminControllerTest {
+
+  private static final PanReencryptionStatusResponse RUNNING =
+      new PanReencryptionStatusResponse(true, 42, null, 0, 0, 0, null);
+
+  @Mock
+  private PanReencryptionService panReencryptionService;
+
+  @InjectMocks
+  private PanReencryptionAdminController panReencryptionAdminController;
+
+  @Test
+  @DisplayName("Должен запустить перешифрование и вернуть 202")
+  void shouldStartReencryption() {
+    when(panReencryptionService.start()).thenReturn(RUNNING);
+
+    ResponseEntity<PanReencryptionStatusResponse> response = panReencryptionAdminController.start();
+
+    assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+    assertEquals(RUNNING, response.getBody());
+  }
+
+  @Test
+  @DisplayName("Должен вернуть прогресс перешифрования")
+  void shouldReturnStatus() {
+    when(panReencryptionService.status()).thenReturn(RUNNING);
+
+    ResponseEntity<PanReencryptionStatusResponse> response =
+        panReencryptionAdminController.status();
+
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(RUNNING, response.getBody());
+  }
+}
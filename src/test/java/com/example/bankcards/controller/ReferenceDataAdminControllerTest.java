@@ -0,0 +1,36 @@
+package com.example.bankcards.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+
+import com.example.bankcards.controller.admin.ReferenceDataAdminController;
+import com.example.bankcards.dto.response.MessageResponse;
+import com.example.bankcards.service.ReferenceDataService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+@ExtendWith(MockitoExtension.class)
+class ReferenceDataAdminControllerTest {
+
+  @Mock
+  private ReferenceDataService referenceDataService;
+
+  @InjectMocks
+  private ReferenceDataAdminController referenceDataAdminController;
+
+  @Test
+  @DisplayName("Должен перечитать справочники")
+  void shouldRefreshReferenceData() {
+    ResponseEntity<MessageResponse> response = referenceDataAdminController.refresh();
+
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals("Справочники обновлены", response.getBody().message());
+    verify(referenceDataService).refresh();
+  }
+}
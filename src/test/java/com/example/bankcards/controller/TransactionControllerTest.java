@@ -1,7 +1,10 @@
 package com.example.bankcards.controller;
 
 import com.example.bankcards.controller.user.TransactionController;
+import com.example.bankcards.dto.request.BatchTransferRequest;
 import com.example.bankcards.dto.request.TransferRequest;
+import com.example.bankcards.dto.response.BatchTransferItemResponse;
+import com.example.bankcards.dto.response.BatchTransferResponse;
 import com.example.bankcards.dto.response.TransactionResponse;
 import com.example.bankcards.entity.enums.TransactionStatus;
 import com.example.bankcards.service.TransactionService;
@@ -20,12 +23,14 @@ import org.springframework.security.core.userdetails.UserDetails;
 
 import java.math.BigDecimal;
 import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -51,6 +56,8 @@ class TransactionControllerTest {
 
   private static final String ROLE_USER = "ROLE_USER";
 
+  private static final String IDEMPOTENCY_KEY = "c0a8012e-7f3d-4b4e-9d2a-5e6f7a8b9c0d";
+
   @Mock
   private TransactionService transactionService;
 
@@ -86,11 +93,11 @@ class TransactionControllerTest {
   @Test
   @DisplayName("Должен успешно выполнить перевод средств между картами")
   void shouldSuccessfullyTransferFundsBetweenCards() {
-    when(transactionService.transfer(eq(transferRequest), eq(TEST_USERNAME)))
+    when(transactionService.transfer(eq(transferRequest), eq(TEST_USERNAME), isNull()))
         .thenReturn(transactionResponse);
 
     ResponseEntity<TransactionResponse> response = transactionController.transfer(transferRequest,
-        userDetails);
+        null, userDetails);
 
     assertNotNull(response);
     assertEquals(HttpStatus.CREATED, response.getStatusCode());
@@ -99,30 +106,30 @@ class TransactionControllerTest {
     assertEquals(com.example.bankcards.entity.enums.TransactionStatus.SUCCESS,
         response.getBody().status());
     assertEquals(TEST_SUCCESS_MESSAGE, response.getBody().message());
-    verify(transactionService).transfer(transferRequest, TEST_USERNAME);
+    verify(transactionService).transfer(transferRequest, TEST_USERNAME, null);
   }
 
   @Test
   @DisplayName("Должен корректно передавать имя пользователя в сервис")
   void shouldCorrectlyPassUsernameToService() {
-    when(transactionService.transfer(eq(transferRequest), eq(TEST_USERNAME)))
+    when(transactionService.transfer(eq(transferRequest), eq(TEST_USERNAME), isNull()))
         .thenReturn(transactionResponse);
 
     ResponseEntity<TransactionResponse> response = transactionController.transfer(transferRequest,
-        userDetails);
+        null, userDetails);
 
     assertNotNull(response);
-    verify(transactionService).transfer(transferRequest, TEST_USERNAME);
+    verify(transactionService).transfer(transferRequest, TEST_USERNAME, null);
   }
 
   @Test
   @DisplayName("Должен возвращать статус 201 CREATED при успешном переводе")
   void shouldReturnCreatedStatusOnSuccessfulTransfer() {
-    when(transactionService.transfer(any(TransferRequest.class), any(String.class)))
+    when(transactionService.transfer(any(TransferRequest.class), any(String.class), isNull()))
         .thenReturn(transactionResponse);
 
     ResponseEntity<TransactionResponse> response = transactionController.transfer(transferRequest,
-        userDetails);
+        null, userDetails);
 
     assertNotNull(response);
     assertEquals(HttpStatus.CREATED, response.getStatusCode());
@@ -156,4 +163,33 @@ class TransactionControllerTest {
         testTransactionResponse.status());
     assertEquals(TEST_SUCCESS_MESSAGE, testTransactionResponse.message());
   }
-}
\ No newline at end of file
+
+  @Test
+  @DisplayName("Должен передавать Idempotency-Key в сервис")
+  void shouldPassIdempotencyKeyToService() {
+    when(transactionService.transfer(transferRequest, TEST_USERNAME, IDEMPOTENCY_KEY))
+        .thenReturn(transactionResponse);
+
+    ResponseEntity<TransactionResponse> response = transactionController.transfer(transferRequest,
+        IDEMPOTENCY_KEY, userDetails);
+
+    assertEquals(HttpStatus.CREATED, response.getStatusCode());
+    verify(transactionService).transfer(transferRequest, TEST_USERNAME, IDEMPOTENCY_KEY);
+  }
+
+  @Test
+  @DisplayName("Должен передавать пакет переводов в сервис и возвращать 200 OK")
+  void shouldTransferBatch() {
+    BatchTransferResponse batchResponse = new BatchTransferResponse(1, 0, List.of(
+        new BatchTransferItemResponse(0, TEST_TRANSACTION_ID, TransactionStatus.SUCCESS,
+            TEST_SUCCESS_MESSAGE)));
+    when(transactionService.transferBatch(List.of(transferRequest), TEST_USERNAME))
+        .thenReturn(batchResponse);
+
+    ResponseEntity<BatchTransferResponse> response = transactionController.transferBatch(
+        new BatchTransferRequest(List.of(transferRequest)), userDetails);
+
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(batchResponse, response.getBody());
+  }
+}
@@ -2,28 +2,37 @@ package com.example.bankcards.controller;
 
 import com.example.bankcards.controller.admin.UserAdminController;
 import com.example.bankcards.dto.request.UserRoleUpdateRequest;
+import com.example.bankcards.dto.response.CursorPageResponse;
 import com.example.bankcards.dto.response.MessageResponse;
 import com.example.bankcards.dto.response.UserResponse;
 import com.example.bankcards.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -45,6 +54,9 @@ class UserAdminControllerTest {
   @Mock
   private UserService userService;
 
+  @Spy
+  private ObjectMapper objectMapper = new ObjectMapper();
+
   @InjectMocks
   private UserAdminController userAdminController;
 
@@ -87,6 +99,39 @@ class UserAdminControllerTest {
     verify(userService).getAllUsers();
   }
 
+  @Test
+  @DisplayName("Должен получить страницу пользователей по курсору")
+  void shouldScrollUsers() {
+    var page = new CursorPageResponse<>(List.of(userResponse), "next", true);
+    when(userService.scrollUsers("cursor", 20)).thenReturn(page);
+
+    CursorPageResponse<UserResponse> response = userAdminController.scrollUsers("cursor", 20);
+
+    assertEquals(page, response);
+    verify(userService).scrollUsers("cursor", 20);
+  }
+
+  @Test
+  @DisplayName("Должен выгрузить пользователей построчно в NDJSON")
+  void shouldStreamUsersAsNdjson() throws Exception {
+    doAnswer(invocation -> {
+      Consumer<UserResponse> action = invocation.getArgument(0);
+      action.accept(userResponse);
+      action.accept(new UserResponse(UUID.randomUUID(), "admin", "ADMIN", false));
+      return null;
+    }).when(userService).streamUsers(any());
+
+    ResponseEntity<StreamingResponseBody> response = userAdminController.streamUsers();
+    var out = new ByteArrayOutputStream();
+    response.getBody().writeTo(out);
+
+    assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+    String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+    assertEquals(2, lines.length);
+    assertEquals(TEST_USERNAME, objectMapper.readTree(lines[0]).get("username").asText());
+    assertEquals("ADMIN", objectMapper.readTree(lines[1]).get("role").asText());
+  }
+
   @Test
   @DisplayName("Должен успешно получить пустой список пользователей")
   void shouldSuccessfullyGetEmptyUsersList() {
@@ -0,0 +1,42 @@
+package com.example.bankcards.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.bankcards.dto.request.CreateCardRequest;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.service.CardService;
+import java.util.List;
+import java.util.UUID;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class CardLockingQueryTest extends AbstractPostgresTest {
+
+  private static final UUID OWNER_ID = UUID.fromString("88888888-8888-8888-8888-888888888888");
+
+  @Autowired
+  private CardService cardService;
+
+  @Autowired
+  private CardRepository cardRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Test
+  @DisplayName("Блокирующий запрос загружает владельца карт вместе с картами")
+  void testFindAllByIdForUpdate_FetchesOwner() {
+    UUID firstCardId = cardService.createCard(new CreateCardRequest(OWNER_ID)).id();
+    UUID secondCardId = cardService.createCard(new CreateCardRequest(OWNER_ID)).id();
+
+    List<Card> cards = new TransactionTemplate(transactionManager).execute(status ->
+        cardRepository.findAllByIdForUpdate(List.of(firstCardId, secondCardId)));
+
+    assertThat(cards).hasSize(2)
+        .allSatisfy(card -> assertThat(Hibernate.isInitialized(card.getBankUser())).isTrue());
+  }
+}
@@ -0,0 +1,72 @@
+package com.example.bankcards.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.bankcards.dto.request.CreateCardRequest;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.service.CardService;
+import com.example.bankcards.service.PanReencryptionService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.OptimisticLockException;
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class PanReencryptionRaceTest extends AbstractPostgresTest {
+
+  private static final UUID OWNER_ID = UUID.fromString("88888888-8888-8888-8888-888888888888");
+
+  @Autowired
+  private CardService cardService;
+
+  @Autowired
+  private PanReencryptionService panReencryptionService;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Test
+  @DisplayName("Карта, загруженная до перешифрования, не перезаписывает новый шифртекст")
+  void testStaleEntityFlush_FailsAfterReencryption() throws InterruptedException {
+    UUID cardId = cardService.createCard(new CreateCardRequest(OWNER_ID)).id();
+    jdbcTemplate.update("UPDATE cards SET number_hash = NULL WHERE id = ?", cardId);
+
+    EntityManager entityManager = entityManagerFactory.createEntityManager();
+    try {
+      entityManager.getTransaction().begin();
+      Card stale = entityManager.find(Card.class, cardId);
+
+      panReencryptionService.start();
+      awaitCompletion();
+
+      stale.setBalance(stale.getBalance().add(BigDecimal.ONE));
+      assertThatThrownBy(entityManager::flush).isInstanceOf(OptimisticLockException.class);
+    } finally {
+      if (entityManager.getTransaction().isActive()) {
+        entityManager.getTransaction().rollback();
+      }
+      entityManager.close();
+    }
+
+    String numberHash = jdbcTemplate.queryForObject(
+        "SELECT number_hash FROM cards WHERE id = ?", String.class, cardId);
+    assertThat(numberHash).isNotNull();
+  }
+
+  private void awaitCompletion() throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+    while (panReencryptionService.status().running()) {
+      assertThat(System.nanoTime()).as("перешифрование не завершилось").isLessThan(deadline);
+      TimeUnit.MILLISECONDS.sleep(50);
+    }
+  }
+}
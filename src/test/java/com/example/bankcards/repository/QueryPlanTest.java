@@ -0,0 +1,114 @@
+package com.example.bankcards.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.Sql.ExecutionPhase;
+
+@Sql(scripts = "/db/query-plan-dataset.sql", executionPhase = ExecutionPhase.BEFORE_TEST_CLASS)
+class QueryPlanTest extends AbstractPostgresTest {
+
+  private static final String CARD_ID = "aaaa1111-aaaa-1111-aaaa-111111111111";
+
+  @Autowired
+  private DataSource dataSource;
+
+  @Test
+  @DisplayName("Поиск карт пользователя идёт по индексу (user_id, last_four_digits)")
+  void testUserCardSearch_UsesIndex() throws SQLException {
+    String plan = explain("""
+        SELECT c.* FROM cards c
+        JOIN users u ON u.id = c.user_id
+        WHERE u.username = 'user1' AND c.last_four_digits LIKE '%12%'
+        """);
+
+    assertThat(plan).doesNotContain("Seq Scan on cards").contains("idx_cards_user_last_four");
+  }
+
+  @Test
+  @DisplayName("Поиск среди всех карт по подстроке последних цифр идёт по триграммному индексу")
+  void testAllCardsSearch_UsesTrigramIndex() throws SQLException {
+    String plan = explain("SELECT c.* FROM cards c WHERE c.last_four_digits LIKE '%123%'");
+
+    assertThat(plan).doesNotContain("Seq Scan on cards").contains("idx_cards_last_four_trgm");
+  }
+
+  @Test
+  @DisplayName("Следующая страница карт по курсору читается по индексу без сортировки")
+  void testCardKeysetPage_UsesIndex() throws SQLException {
+    String plan = explain("""
+        SELECT c.* FROM cards c
+        WHERE c.created_at <= now()
+        AND (c.created_at < now() OR c.id < '%s')
+        ORDER BY c.created_at DESC, c.id DESC
+        LIMIT 21
+        """.formatted(CARD_ID));
+
+    assertThat(plan).doesNotContain("Seq Scan on cards").doesNotContain("Sort")
+        .contains("idx_cards_created_id");
+  }
+
+  @Test
+  @DisplayName("Следующая страница пользователей по курсору читается по индексу без сортировки")
+  void testUserKeysetPage_UsesIndex() throws SQLException {
+    String plan = explain("""
+        SELECT u.* FROM users u
+        WHERE u.created_at <= now()
+        AND (u.created_at < now() OR u.id < '%s')
+        ORDER BY u.created_at DESC, u.id DESC
+        LIMIT 21
+        """.formatted(CARD_ID));
+
+    assertThat(plan).doesNotContain("Seq Scan on users").doesNotContain("Sort")
+        .contains("idx_users_created_id");
+  }
+
+  @Test
+  @DisplayName("Поиск карты по номеру идёт по уникальному индексу number_hash")
+  void testCardNumberLookup_UsesBlindIndex() throws SQLException {
+    String plan = explain("SELECT c.* FROM cards c WHERE c.number_hash = '"
+        + "0".repeat(64) + "'");
+
+    assertThat(plan).doesNotContain("Seq Scan on cards").contains("uq_cards_number_hash");
+  }
+
+  @Test
+  @DisplayName("История исходящих переводов карты читается по индексу без сортировки")
+  void testOutgoingHistory_UsesIndex() throws SQLException {
+    String plan = explain("SELECT * FROM transactions WHERE from_card_id = '" + CARD_ID
+        + "' ORDER BY created_at DESC LIMIT 20");
+
+    assertThat(plan).doesNotContain("Seq Scan on transactions").doesNotContain("Sort")
+        .contains("idx_transactions_from_card_created");
+  }
+
+  @Test
+  @DisplayName("История входящих переводов карты читается по индексу без сортировки")
+  void testIncomingHistory_UsesIndex() throws SQLException {
+    String plan = explain("SELECT * FROM transactions WHERE to_card_id = '" + CARD_ID
+        + "' ORDER BY created_at DESC LIMIT 20");
+
+    assertThat(plan).doesNotContain("Seq Scan on transactions").doesNotContain("Sort")
+        .contains("idx_transactions_to_card_created");
+  }
+
+  private String explain(String sql) throws SQLException {
+    try (Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement();
+        ResultSet rs = statement.executeQuery("EXPLAIN " + sql)) {
+      StringBuilder plan = new StringBuilder();
+      while (rs.next()) {
+        plan.append(rs.getString(1)).append('\n');
+      }
+      return plan.toString();
+    }
+  }
+}
@@ -0,0 +1,58 @@
+package com.example.bankcards.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.bankcards.dto.request.CreateCardRequest;
+import com.example.bankcards.dto.request.TransferRequest;
+import com.example.bankcards.dto.response.BatchTransferResponse;
+import com.example.bankcards.service.CardService;
+import com.example.bankcards.service.TransactionService;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.UUID;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ActiveProfiles;
+
+@ActiveProfiles("write-optimized")
+class TransferBatchingTest extends AbstractPostgresTest {
+
+  private static final UUID OWNER_ID = UUID.fromString("88888888-8888-8888-8888-888888888888");
+
+  private static final String OWNER_USERNAME = "user1";
+
+  private static final int TRANSFERS = 40;
+
+  @Autowired
+  private CardService cardService;
+
+  @Autowired
+  private TransactionService transactionService;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @Test
+  @DisplayName("Пакет переводов отправляет вставки и обновления JDBC-батчами")
+  void testTransferBatch_UsesJdbcBatching() {
+    UUID fromCardId = cardService.createCard(new CreateCardRequest(OWNER_ID)).id();
+    UUID toCardId = cardService.createCard(new CreateCardRequest(OWNER_ID)).id();
+
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    BatchTransferResponse response = transactionService.transferBatch(Collections.nCopies(
+        TRANSFERS, new TransferRequest(fromCardId, toCardId, BigDecimal.ONE)), OWNER_USERNAME);
+
+    assertThat(response.succeeded()).isEqualTo(TRANSFERS);
+    assertThat(statistics.getEntityInsertCount()).isEqualTo(TRANSFERS);
+    assertThat(statistics.getEntityUpdateCount()).isEqualTo(2);
+    assertThat(statistics.getPrepareStatementCount())
+        .as("вставки и обновления должны уходить батчами, а не по одной на перевод")
+        .isLessThan(TRANSFERS / 4);
+  }
+}
@@ -0,0 +1,91 @@
+package com.example.bankcards.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.example.bankcards.config.AuthProperties;
+import com.example.bankcards.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+class BoundedPasswordEncoderTest {
+
+  private final CountDownLatch started = new CountDownLatch(1);
+
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  private SimpleMeterRegistry meterRegistry;
+
+  private BoundedPasswordEncoder encoder;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    encoder = new BoundedPasswordEncoder(new BlockingEncoder(),
+        new AuthProperties.PasswordHashing(10, 1, 1, Duration.ofSeconds(5)), meterRegistry);
+  }
+
+  @AfterEach
+  void tearDown() {
+    release.countDown();
+    encoder.close();
+  }
+
+  @Test
+  @DisplayName("Хеширование выполняется в отдельном пуле и учитывается в метриках")
+  void testEncode_RunsOnHashPool() {
+    release.countDown();
+
+    assertThat(encoder.encode("secret")).startsWith("password-hash-");
+    assertThat(encoder.matches("secret", "password-hash-1:secret")).isTrue();
+    assertThat(meterRegistry.get("bank.auth.password.hash").tag("operation", "encode").timer()
+        .count()).isEqualTo(1);
+    assertThat(meterRegistry.get("bank.auth.password.hash").tag("operation", "matches").timer()
+        .count()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Переполнение очереди хеширования отклоняет запрос сразу")
+  void testEncode_QueueFull() throws Exception {
+    CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+    assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+    CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+    while (meterRegistry.get("bank.auth.password.queue").gauge().value() < 1) {
+      Thread.onSpinWait();
+    }
+
+    assertThrows(TooManyRequestsException.class, () -> encoder.encode("c"));
+    assertThat(meterRegistry.get("bank.auth.password.rejected").counter().count()).isEqualTo(1);
+
+    release.countDown();
+    assertThat(running.get(5, TimeUnit.SECONDS)).isNotNull();
+    assertThat(queued.get(5, TimeUnit.SECONDS)).isNotNull();
+  }
+
+  private final class BlockingEncoder implements PasswordEncoder {
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+      started.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+      return Thread.currentThread().getName() + ":" + rawPassword;
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+      return encodedPassword.endsWith(":" + rawPassword);
+    }
+  }
+}
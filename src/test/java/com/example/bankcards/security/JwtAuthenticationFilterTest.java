@@ -0,0 +1,101 @@
+package com.example.bankcards.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.bankcards.config.AuthProperties;
+import com.example.bankcards.config.AuthProperties.Mode;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+  private static final JwtToken JWT_TOKEN =
+      new JwtToken("MySuperSecretKeyThatIsAtLeast32BytesLong!!", 3_600_000L, 100);
+
+  private static final User USER = new User("user1", "password",
+      List.of(new SimpleGrantedAuthority("ROLE_USER")));
+
+  @Mock
+  private UserDetailsServiceImpl userDetailsService;
+
+  @Mock
+  private UserRevocationRegistry userRevocationRegistry;
+
+  @BeforeEach
+  @AfterEach
+  void clearContext() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  @DisplayName("В режиме STATELESS пользователь строится из claims без обращения к базе")
+  void testStateless_AuthenticatesFromClaims() throws Exception {
+    when(userRevocationRegistry.isRevoked(any())).thenReturn(false);
+
+    Authentication authentication = filter(Mode.STATELESS);
+
+    assertThat(authentication.getName()).isEqualTo("user1");
+    assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+        .containsExactly("ROLE_USER");
+    verify(userDetailsService, never()).loadUserByUsername(any());
+  }
+
+  @Test
+  @DisplayName("В режиме STATELESS токен заблокированного пользователя не аутентифицирует")
+  void testStateless_RevokedUser() throws Exception {
+    when(userRevocationRegistry.isRevoked(any())).thenReturn(true);
+
+    assertThat(filter(Mode.STATELESS)).isNull();
+  }
+
+  @Test
+  @DisplayName("В режиме DATABASE отключённый пользователь не аутентифицируется")
+  void testDatabase_DisabledUser() throws Exception {
+    when(userDetailsService.loadUserByUsername("user1")).thenReturn(
+        new User("user1", "password", false, true, true, true, USER.getAuthorities()));
+
+    assertThat(filter(Mode.DATABASE)).isNull();
+  }
+
+  @Test
+  @DisplayName("В режиме DATABASE пользователь загружается из базы")
+  void testDatabase_AuthenticatesLoadedUser() throws Exception {
+    when(userDetailsService.loadUserByUsername("user1")).thenReturn(USER);
+
+    assertThat(filter(Mode.DATABASE).getPrincipal()).isEqualTo(USER);
+    verify(userRevocationRegistry, never()).isRevoked(any());
+  }
+
+  private Authentication filter(Mode mode) throws Exception {
+    var filter = new JwtAuthenticationFilter(JWT_TOKEN, userDetailsService,
+        userRevocationRegistry, new AuthProperties(mode, Duration.ofSeconds(30),
+            new AuthProperties.UserCache(100, Duration.ofMinutes(5)),
+            new AuthProperties.PasswordHashing(10, 4, 32, Duration.ofSeconds(5))));
+    var request = new MockHttpServletRequest("GET", "/api/v1/user/cards/my_cards");
+    request.addHeader("Authorization", "Bearer " + JWT_TOKEN.generatorToken(USER));
+
+    filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+    return SecurityContextHolder.getContext().getAuthentication();
+  }
+}
@@ -0,0 +1,121 @@
+package com.example.bankcards.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+class JwtTokenTest {
+
+  private static final String SECRET = "MySuperSecretKeyThatIsAtLeast32BytesLong!!";
+
+  private static final long EXPIRATION = 3_600_000L;
+
+  private final JwtToken jwtToken = new JwtToken(SECRET, EXPIRATION, 100);
+
+  @Test
+  @DisplayName("Выпущенный токен разбирается в проверенные claims за один проход")
+  void testParse_ValidToken() {
+    String token = jwtToken.generatorToken(new User("testuser", "password",
+        List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+
+    var claims = jwtToken.parse(token);
+
+    assertThat(claims).isPresent();
+    assertThat(claims.get().username()).isEqualTo("testuser");
+    assertThat(claims.get().roles()).containsExactly("ROLE_USER");
+    assertThat(claims.get().expiresAt()).isAfter(claims.get().issuedAt());
+  }
+
+  @Test
+  @DisplayName("Токен с чужой подписью не проходит проверку")
+  void testParse_ForeignSignature() {
+    String token = Jwts.builder()
+        .setSubject("testuser")
+        .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION))
+        .signWith(Keys.hmacShaKeyFor(
+            "AnotherSecretKeyThatIsAtLeast32BytesLong!!".getBytes(StandardCharsets.UTF_8)),
+            SignatureAlgorithm.HS256)
+        .compact();
+
+    assertThat(jwtToken.parse(token)).isEmpty();
+    assertThat(jwtToken.validateToken(token)).isFalse();
+  }
+
+  @Test
+  @DisplayName("Просроченный и повреждённый токены не проходят проверку")
+  void testParse_ExpiredAndMalformed() {
+    String expired = new JwtToken(SECRET, -1_000L, 100).generatorToken(
+        new User("testuser", "password", List.of()));
+
+    assertThat(jwtToken.parse(expired)).isEmpty();
+    assertThat(jwtToken.parse("not.a.jwt")).isEmpty();
+    assertThat(jwtToken.getUsernameFromToken("")).isNull();
+  }
+
+  @Test
+  @DisplayName("Повторный разбор токена берётся из кэша проверенных токенов")
+  void testParse_CachedVerification() {
+    String token = jwtToken.generatorToken(new User("testuser", "password", List.of()));
+
+    var first = jwtToken.parse(token);
+    var second = jwtToken.parse(token);
+
+    assertThat(second.get()).isSameAs(first.get());
+    assertThat(jwtToken.parse(token.substring(0, token.length() - 2) + "xx")).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Закэшированный токен отклоняется после истечения срока действия")
+  void testParse_CachedTokenExpires() {
+    var clock = new MutableClock(Instant.parse("2025-01-01T10:00:00Z"));
+    var token = new JwtToken(SECRET, EXPIRATION, 100, clock);
+    String jwt = token.generatorToken(new User("testuser", "password", List.of()));
+    assertThat(token.parse(jwt)).isPresent();
+
+    clock.advance(Duration.ofMillis(EXPIRATION + 1_000));
+
+    assertThat(token.parse(jwt)).isEmpty();
+  }
+
+  private static final class MutableClock extends Clock {
+
+    private Instant now;
+
+    private MutableClock(Instant now) {
+      this.now = now;
+    }
+
+    void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}
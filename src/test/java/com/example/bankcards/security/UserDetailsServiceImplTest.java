@@ -0,0 +1,155 @@
+package com.example.bankcards.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.bankcards.config.AuthProperties;
+import com.example.bankcards.config.EncoderConfig;
+import com.example.bankcards.entity.BankUser;
+import com.example.bankcards.entity.UserRole;
+import com.example.bankcards.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+@ExtendWith(MockitoExtension.class)
+class UserDetailsServiceImplTest {
+
+  private static final String USERNAME = "testuser";
+
+  @Mock
+  private UserRepository userRepository;
+
+  private SimpleMeterRegistry meterRegistry;
+
+  private UserDetailsServiceImpl userDetailsService;
+
+  private BankUser user;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    userDetailsService = new UserDetailsServiceImpl(userRepository,
+        new AuthProperties(AuthProperties.Mode.DATABASE, Duration.ofSeconds(30),
+            new AuthProperties.UserCache(100, Duration.ofMinutes(5)),
+            new AuthProperties.PasswordHashing(10, 4, 32, Duration.ofSeconds(5))),
+        meterRegistry);
+
+    user = BankUser.builder()
+        .username(USERNAME)
+        .password("hash")
+        .role(new UserRole(UUID.randomUUID(), "USER"))
+        .enabled(true)
+        .build();
+  }
+
+  @Test
+  @DisplayName("Повторная загрузка пользователя берётся из кэша и учитывается в метриках")
+  void testLoadUser_Cached() {
+    when(userRepository.findByUsername(USERNAME)).thenReturn(Optional.of(user));
+
+    userDetailsService.loadUserByUsername(USERNAME);
+    var details = userDetailsService.loadUserByUsername(USERNAME);
+
+    assertThat(details.getUsername()).isEqualTo(USERNAME);
+    assertThat(details.getAuthorities()).extracting(Object::toString).containsExactly("ROLE_USER");
+    verify(userRepository, times(1)).findByUsername(USERNAME);
+    assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count())
+        .isEqualTo(1);
+    assertThat(meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Стирание пароля после входа не портит закэшированного пользователя")
+  void testLoadUser_ReturnsCopy() {
+    when(userRepository.findByUsername(USERNAME)).thenReturn(Optional.of(user));
+
+    ((User) userDetailsService.loadUserByUsername(USERNAME)).eraseCredentials();
+
+    assertThat(userDetailsService.loadUserByUsername(USERNAME).getPassword()).isEqualTo("hash");
+  }
+
+  @Test
+  @DisplayName("После вытеснения пользователь перечитывается из базы")
+  void testEvict_ReloadsUser() {
+    when(userRepository.findByUsername(USERNAME)).thenReturn(Optional.of(user));
+    userDetailsService.loadUserByUsername(USERNAME);
+    user.setEnabled(false);
+
+    userDetailsService.evict(USERNAME);
+
+    assertThat(userDetailsService.loadUserByUsername(USERNAME).isEnabled()).isFalse();
+    verify(userRepository, times(2)).findByUsername(USERNAME);
+  }
+
+  @Test
+  @DisplayName("Несуществующий пользователь не кэшируется")
+  void testLoadUser_NotFound() {
+    when(userRepository.findByUsername(USERNAME)).thenReturn(Optional.empty());
+
+    assertThrows(UsernameNotFoundException.class,
+        () -> userDetailsService.loadUserByUsername(USERNAME));
+    assertThrows(UsernameNotFoundException.class,
+        () -> userDetailsService.loadUserByUsername(USERNAME));
+    verify(userRepository, times(2)).findByUsername(USERNAME);
+  }
+
+  @Test
+  @DisplayName("Обновление хеша пароля сохраняется в базе и вытесняет пользователя из кэша")
+  void testUpdatePassword() {
+    when(userRepository.findByUsername(USERNAME)).thenReturn(Optional.of(user));
+    when(userRepository.updatePassword(USERNAME, "{bcrypt}new")).thenReturn(1);
+    var details = userDetailsService.loadUserByUsername(USERNAME);
+
+    var updated = userDetailsService.updatePassword(details, "{bcrypt}new");
+
+    assertThat(updated.getPassword()).isEqualTo("{bcrypt}new");
+    userDetailsService.loadUserByUsername(USERNAME);
+    verify(userRepository, times(2)).findByUsername(USERNAME);
+  }
+
+  @Test
+  @DisplayName("Вход со старым хешем перехеширует пароль с текущей стоимостью")
+  void testLogin_RehashesLegacyPassword() {
+    var properties = new AuthProperties(AuthProperties.Mode.DATABASE, Duration.ofSeconds(30),
+        new AuthProperties.UserCache(100, Duration.ofMinutes(5)),
+        new AuthProperties.PasswordHashing(5, 1, 8, Duration.ofSeconds(5)));
+    var encoder = (BoundedPasswordEncoder) new EncoderConfig(properties, meterRegistry)
+        .passwordEncoder();
+    user.setPassword(new BCryptPasswordEncoder(4).encode("secret"));
+    when(userRepository.findByUsername(USERNAME)).thenReturn(Optional.of(user));
+    var newHash = ArgumentCaptor.forClass(String.class);
+    when(userRepository.updatePassword(eq(USERNAME), newHash.capture())).thenReturn(1);
+    var provider = new DaoAuthenticationProvider();
+    provider.setUserDetailsService(userDetailsService);
+    provider.setPasswordEncoder(encoder);
+    provider.setUserDetailsPasswordService(userDetailsService);
+
+    try {
+      provider.authenticate(new UsernamePasswordAuthenticationToken(USERNAME, "secret"));
+    } finally {
+      encoder.close();
+    }
+
+    assertThat(newHash.getValue()).startsWith("{bcrypt}$2a$05$");
+    assertThat(encoder.upgradeEncoding(newHash.getValue())).isFalse();
+  }
+}
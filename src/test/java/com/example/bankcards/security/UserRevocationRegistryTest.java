@@ -0,0 +1,107 @@
+package com.example.bankcards.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import com.example.bankcards.dto.projection.TokenRevocation;
+import com.example.bankcards.repository.UserRepository;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class UserRevocationRegistryTest {
+
+  private static final Instant ISSUED_AT = Instant.parse("2025-01-01T10:00:00Z");
+
+  @Mock
+  private UserRepository userRepository;
+
+  @InjectMocks
+  private UserRevocationRegistry registry;
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(registry, "jwtExpiration", 3_600_000L);
+  }
+
+  @Test
+  @DisplayName("Заблокированные в базе пользователи отзываются после загрузки")
+  void testReload_BlockedFromDatabase() {
+    when(userRepository.findBlockedUsernames()).thenReturn(List.of("blocked"));
+
+    registry.reload();
+
+    assertThat(registry.isRevoked(claims("blocked", ISSUED_AT))).isTrue();
+    assertThat(registry.isRevoked(claims("active", ISSUED_AT))).isFalse();
+  }
+
+  @Test
+  @DisplayName("Блокировка и разблокировка применяются без обращения к базе")
+  void testBlockUnblock() {
+    registry.block("user1");
+    assertThat(registry.isRevoked(claims("user1", ISSUED_AT))).isTrue();
+
+    registry.unblock("user1");
+    assertThat(registry.isRevoked(claims("user1", ISSUED_AT))).isFalse();
+  }
+
+  @Test
+  @DisplayName("После смены роли отзываются только токены, выпущенные раньше")
+  void testRevokeTokensIssuedBefore() {
+    registry.revokeTokensIssuedBefore("user1", ISSUED_AT);
+
+    assertThat(registry.isRevoked(claims("user1", ISSUED_AT.minusSeconds(1)))).isTrue();
+    assertThat(registry.isRevoked(claims("user1", ISSUED_AT.plusSeconds(1)))).isFalse();
+  }
+
+  @Test
+  @DisplayName("Токен, выпущенный в ту же секунду, что и смена роли, отзывается")
+  void testRevokeTokensIssuedBefore_SameSecond() {
+    registry.revokeTokensIssuedBefore("user1", ISSUED_AT.plusMillis(900));
+
+    assertThat(registry.isRevoked(claims("user1", ISSUED_AT))).isTrue();
+    assertThat(registry.isRevoked(claims("user1", ISSUED_AT.plusMillis(100)))).isTrue();
+    assertThat(registry.isRevoked(claims("user1", ISSUED_AT.plusSeconds(1)))).isFalse();
+  }
+
+  @Test
+  @DisplayName("Отзыв токенов после смены роли загружается из базы на любом узле")
+  void testReload_TokenRevocationsFromDatabase() {
+    Instant changedAt = Instant.now().minusSeconds(60);
+    when(userRepository.findTokenRevocationsSince(any())).thenReturn(List.of(
+        new TokenRevocation("user1", changedAt.atOffset(ZoneOffset.UTC))));
+
+    registry.reload();
+
+    assertThat(registry.isRevoked(claims("user1", changedAt.minusSeconds(1)))).isTrue();
+    assertThat(registry.isRevoked(claims("user1", changedAt.plusSeconds(1)))).isFalse();
+    assertThat(registry.isRevoked(claims("user2", changedAt.minusSeconds(1)))).isFalse();
+  }
+
+  @Test
+  @DisplayName("Перезагрузка не откатывает более поздний локальный отзыв")
+  void testReload_KeepsLaterLocalRevocation() {
+    Instant changedAt = Instant.now().minusSeconds(60);
+    registry.revokeTokensIssuedBefore("user1", changedAt);
+    when(userRepository.findTokenRevocationsSince(any())).thenReturn(List.of(
+        new TokenRevocation("user1", changedAt.minusSeconds(30).atOffset(ZoneOffset.UTC))));
+
+    registry.reload();
+
+    assertThat(registry.isRevoked(claims("user1", changedAt.minusSeconds(1)))).isTrue();
+  }
+
+  private static JwtClaims claims(String username, Instant issuedAt) {
+    return new JwtClaims(username, List.of("ROLE_USER"), issuedAt, issuedAt.plusSeconds(3600));
+  }
+}
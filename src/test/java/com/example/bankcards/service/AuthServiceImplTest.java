@@ -4,6 +4,7 @@ package com.example.bankcards.service;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -14,10 +15,9 @@ import com.example.bankcards.dto.response.MessageResponse;
 import com.example.bankcards.dto.response.RegistrationResponse;
 import com.example.bankcards.entity.BankUser;
 import com.example.bankcards.entity.UserRole;
-import com.example.bankcards.exception.NotFoundException;
+import com.example.bankcards.entity.enums.UserRoleEnum;
 import com.example.bankcards.exception.UserAlreadyExistsException;
 import com.example.bankcards.repository.UserRepository;
-import com.example.bankcards.repository.UserRoleRepository;
 import com.example.bankcards.security.JwtToken;
 import com.example.bankcards.security.UserDetailsServiceImpl;
 import com.example.bankcards.service.impl.AuthServiceImpl;
@@ -26,6 +26,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -34,7 +35,7 @@ import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 
 @ExtendWith(MockitoExtension.class)
 class AuthServiceImplTest {
@@ -51,10 +52,10 @@ class AuthServiceImplTest {
     private UserRepository userRepository;
 
     @Mock
-    private UserRoleRepository userRoleRepository;
+    private ReferenceDataService referenceDataService;
 
     @Mock
-    private BCryptPasswordEncoder bCryptPasswordEncoder;
+    private PasswordEncoder passwordEncoder;
 
     @Mock
     private UserDetailsServiceImpl userDetailsService;
@@ -82,8 +83,8 @@ class AuthServiceImplTest {
         RegisterUserRequest request = new RegisterUserRequest(USERNAME, PASSWORD, FULL_NAME);
 
         when(userRepository.existsByUsername(USERNAME)).thenReturn(false);
-        when(userRoleRepository.findByName("USER")).thenReturn(java.util.Optional.of(userRole));
-        when(bCryptPasswordEncoder.encode(PASSWORD)).thenReturn("encodedPassword");
+        when(referenceDataService.userRole(UserRoleEnum.USER)).thenReturn(userRole);
+        when(passwordEncoder.encode(PASSWORD)).thenReturn("encodedPassword");
         UserDetails userDetails = mock(UserDetails.class);
         when(userDetailsService.loadUserByUsername(USERNAME)).thenReturn(userDetails);
         when(jwtToken.generatorToken(userDetails)).thenReturn(TOKEN);
@@ -98,6 +99,11 @@ class AuthServiceImplTest {
         verify(userRepository).save(userCaptor.capture());
         assertThat(userCaptor.getValue().getUsername()).isEqualTo(USERNAME);
         assertThat(userCaptor.getValue().getPassword()).isEqualTo("encodedPassword");
+        assertThat(userCaptor.getValue().getRole()).isSameAs(userRole);
+
+        InOrder order = inOrder(passwordEncoder, userRepository);
+        order.verify(passwordEncoder).encode(PASSWORD);
+        order.verify(userRepository).save(any(BankUser.class));
     }
 
     @Test
@@ -111,18 +117,6 @@ class AuthServiceImplTest {
         verify(userRepository, never()).save(any(BankUser.class));
     }
 
-    @Test
-    @DisplayName("Регистрация неудачна, если роль USER не найдена")
-    void testRegisterUser_RoleNotFound() {
-        RegisterUserRequest request = new RegisterUserRequest(USERNAME, PASSWORD, FULL_NAME);
-
-        when(userRepository.existsByUsername(USERNAME)).thenReturn(false);
-        when(userRoleRepository.findByName("USER")).thenReturn(java.util.Optional.empty());
-
-        assertThrows(NotFoundException.class, () -> authService.registerUser(request));
-        verify(userRepository, never()).save(any(BankUser.class));
-    }
-
     @Test
     @DisplayName("Успешный вход пользователя")
     void testLoginUser_Success() {
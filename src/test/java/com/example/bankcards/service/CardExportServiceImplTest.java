@@ -0,0 +1,128 @@
+package com.example.bankcards.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+
+import com.example.bankcards.config.CardExportProperties;
+import com.example.bankcards.dto.projection.CardListItem;
+import com.example.bankcards.entity.enums.CardExportFormat;
+import com.example.bankcards.repository.CardExportJdbcRepository;
+import com.example.bankcards.service.impl.CardExportServiceImpl;
+import com.example.bankcards.util.CardMaskService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CardExportServiceImplTest {
+
+  private static final int FETCH_SIZE = 500;
+
+  private static final UUID CARD_ID = UUID.fromString("11111111-1111-1111-1111-111111111111");
+
+  private static final UUID USER_ID = UUID.fromString("22222222-2222-2222-2222-222222222222");
+
+  private static final OffsetDateTime CREATED_AT =
+      OffsetDateTime.of(2025, 1, 15, 10, 30, 0, 0, ZoneOffset.UTC);
+
+  @Mock
+  private CardExportJdbcRepository cardExportRepository;
+
+  private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+  private CardExportServiceImpl cardExportService;
+
+  @BeforeEach
+  void setUp() {
+    cardExportService = new CardExportServiceImpl(cardExportRepository, new CardMaskService(),
+        objectMapper, new CardExportProperties(FETCH_SIZE, Duration.ofMinutes(30)));
+  }
+
+  @Test
+  @DisplayName("CSV: заголовок, маскированный номер и экранирование имени держателя")
+  void testExportCards_Csv() throws IOException {
+    givenCards(card("1234", "IVANOV, IVAN"), card("5678", "PETR \"PETROV\""));
+    var out = new ByteArrayOutputStream();
+
+    long exported = cardExportService.exportCards(CardExportFormat.CSV, out);
+
+    assertThat(exported).isEqualTo(2);
+    assertThat(out.toString(StandardCharsets.UTF_8).split("\n")).containsExactly(
+        "id,masked_number,holder_name,expiry_date,balance,status,user_id,created_at",
+        CARD_ID + ",**** **** **** 1234,\"IVANOV, IVAN\",2030-12-31,100.50,ACTIVE,"
+            + USER_ID + ",2025-01-15T10:30Z",
+        CARD_ID + ",**** **** **** 5678,\"PETR \"\"PETROV\"\"\",2030-12-31,100.50,ACTIVE,"
+            + USER_ID + ",2025-01-15T10:30Z");
+  }
+
+  @Test
+  @DisplayName("NDJSON: одна строка на карту, полный номер не выгружается")
+  void testExportCards_Ndjson() throws IOException {
+    givenCards(card("1234", "IVAN IVANOV"));
+    var out = new ByteArrayOutputStream();
+
+    long exported = cardExportService.exportCards(CardExportFormat.NDJSON, out);
+
+    assertThat(exported).isEqualTo(1);
+    String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+    assertThat(lines).hasSize(1);
+    JsonNode row = objectMapper.readTree(lines[0]);
+    assertThat(row.get("maskedNumber").asText()).isEqualTo("**** **** **** 1234");
+    assertThat(row.get("holderName").asText()).isEqualTo("IVAN IVANOV");
+    assertThat(row.get("userId").asText()).isEqualTo(USER_ID.toString());
+  }
+
+  @Test
+  @DisplayName("Ошибка записи в ответ прерывает выгрузку исходным IOException")
+  void testExportCards_WriteFailure() {
+    givenCards(card("1234", "IVAN IVANOV"));
+    OutputStream broken = new OutputStream() {
+      @Override
+      public void write(int b) throws IOException {
+        throw new IOException("Broken pipe");
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) throws IOException {
+        throw new IOException("Broken pipe");
+      }
+    };
+
+    assertThatThrownBy(() -> cardExportService.exportCards(CardExportFormat.CSV, broken))
+        .isInstanceOf(IOException.class)
+        .hasMessage("Broken pipe");
+  }
+
+  private void givenCards(CardListItem... cards) {
+    doAnswer(invocation -> {
+      Consumer<CardListItem> action = invocation.getArgument(1);
+      List.of(cards).forEach(action);
+      return null;
+    }).when(cardExportRepository).forEachCard(eq(FETCH_SIZE), any());
+  }
+
+  private static CardListItem card(String lastFourDigits, String holderName) {
+    return new CardListItem(CARD_ID, lastFourDigits, holderName, LocalDate.of(2030, 12, 31),
+        new BigDecimal("100.50"), "ACTIVE", USER_ID, CREATED_AT);
+  }
+}
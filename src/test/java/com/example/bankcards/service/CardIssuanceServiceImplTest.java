@@ -0,0 +1,189 @@
+package com.example.bankcards.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.bankcards.config.CardIssuanceProperties;
+import com.example.bankcards.dto.projection.CardHolder;
+import com.example.bankcards.dto.response.BulkCardIssueItemResponse;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.enums.CardIssueStatus;
+import com.example.bankcards.entity.enums.CardStatusEnum;
+import com.example.bankcards.repository.CardIssuanceJdbcRepository;
+import com.example.bankcards.service.impl.CardIssuanceServiceImpl;
+import com.example.bankcards.util.CardBlindIndexService;
+import com.example.bankcards.util.CardCryptoTinkService;
+import com.example.bankcards.util.CardMaskService;
+import com.example.bankcards.util.CardNumberGenerator;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class CardIssuanceServiceImplTest {
+
+  private static final UUID FIRST_USER = UUID.fromString("11111111-1111-1111-1111-111111111111");
+
+  private static final UUID SECOND_USER = UUID.fromString("22222222-2222-2222-2222-222222222222");
+
+  private static final UUID MISSING_USER = UUID.fromString("33333333-3333-3333-3333-333333333333");
+
+  @Mock
+  private CardIssuanceJdbcRepository cardIssuanceRepository;
+
+  @Mock
+  private ReferenceDataService referenceDataService;
+
+  @Mock
+  private CardNumberGenerator cardNumberGenerator;
+
+  @Mock
+  private CardCryptoTinkService cardCryptoTinkService;
+
+  @Mock
+  private CardBlindIndexService cardBlindIndexService;
+
+  @Mock
+  private CardMaskService cardMaskService;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  private CardIssuanceServiceImpl cardIssuanceService;
+
+  private final List<BulkCardIssueItemResponse> results = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    cardIssuanceService = new CardIssuanceServiceImpl(cardIssuanceRepository,
+        referenceDataService, cardNumberGenerator, cardCryptoTinkService, cardBlindIndexService,
+        cardMaskService, transactionManager, new CardIssuanceProperties(2, 2, Duration.ofMinutes(10)));
+
+    when(cardIssuanceRepository.findCardHolders(anyCollection())).thenReturn(List.of(
+        new CardHolder(FIRST_USER, "FIRST USER"), new CardHolder(SECOND_USER, "SECOND USER")));
+    when(referenceDataService.cardStatus(CardStatusEnum.ACTIVE))
+        .thenReturn(new CardStatus(UUID.randomUUID(), "ACTIVE"));
+    when(cardCryptoTinkService.encrypt(any())).thenAnswer(inv -> "enc-" + inv.getArgument(0));
+    when(cardBlindIndexService.index(any())).thenAnswer(inv -> "hash-" + inv.getArgument(0));
+  }
+
+  @AfterEach
+  void tearDown() {
+    cardIssuanceService.shutdown();
+  }
+
+  @Test
+  @DisplayName("Карты выпускаются порциями, неизвестные пользователи попадают в результат")
+  void testIssueCards_ChunksAndUnknownUsers() {
+    when(cardNumberGenerator.generateMirCard())
+        .thenReturn("2200000000000001", "2200000000000002", "2200000000000003");
+    when(cardIssuanceRepository.findExistingNumberHashes(anyCollection())).thenReturn(Set.of());
+    when(cardMaskService.mask(any())).thenAnswer(inv -> "**** " + inv.getArgument(0));
+
+    cardIssuanceService.issueCards(List.of(FIRST_USER, MISSING_USER, SECOND_USER, FIRST_USER),
+        results::add);
+
+    assertThat(results).extracting(BulkCardIssueItemResponse::index).containsExactly(0, 1, 2, 3);
+    assertThat(results).extracting(BulkCardIssueItemResponse::status).containsExactly(
+        CardIssueStatus.CREATED, CardIssueStatus.FAILED, CardIssueStatus.CREATED,
+        CardIssueStatus.CREATED);
+    verify(cardIssuanceRepository).findCardHolders(anyCollection());
+
+    ArgumentCaptor<List<Card>> batches = ArgumentCaptor.captor();
+    verify(cardIssuanceRepository, times(2)).insertCards(batches.capture());
+    assertThat(batches.getAllValues().get(0)).hasSize(1);
+    assertThat(batches.getAllValues().get(1)).hasSize(2);
+    assertThat(batches.getAllValues()).flatMap(batch -> batch)
+        .extracting(Card::getNumberHash).doesNotHaveDuplicates();
+  }
+
+  @Test
+  @DisplayName("Уже выпущенный номер генерируется заново")
+  void testIssueCards_RegeneratesExistingPan() {
+    when(cardNumberGenerator.generateMirCard())
+        .thenReturn("2200000000000001", "2200000000000002");
+    when(cardIssuanceRepository.findExistingNumberHashes(anyCollection()))
+        .thenReturn(Set.of("hash-2200000000000001"), Set.of());
+    when(cardMaskService.mask("0002")).thenReturn("**** 0002");
+
+    cardIssuanceService.issueCards(List.of(FIRST_USER), results::add);
+
+    ArgumentCaptor<List<Card>> batch = ArgumentCaptor.captor();
+    verify(cardIssuanceRepository).insertCards(batch.capture());
+    assertThat(batch.getValue()).extracting(Card::getNumberHash)
+        .containsExactly("hash-2200000000000002");
+    assertThat(results.get(0).numberEncrypted()).isEqualTo("**** 0002");
+  }
+
+  @Test
+  @DisplayName("Ошибка вставки порции помечает её карты как невыпущенные")
+  void testIssueCards_FailedBatch() {
+    when(cardNumberGenerator.generateMirCard()).thenReturn("2200000000000001");
+    when(cardIssuanceRepository.findExistingNumberHashes(anyCollection())).thenReturn(Set.of());
+    doThrow(new DataIntegrityViolationException("duplicate"))
+        .when(cardIssuanceRepository).insertCards(any());
+
+    cardIssuanceService.issueCards(List.of(FIRST_USER), results::add);
+
+    assertThat(results).singleElement().satisfies(result -> {
+      assertThat(result.status()).isEqualTo(CardIssueStatus.FAILED);
+      assertThat(result.cardId()).isNull();
+    });
+  }
+
+  @Test
+  @DisplayName("Ошибка шифрования номера помечает только эту карту, выпуск продолжается")
+  void testIssueCards_GenerationFailure() {
+    when(cardNumberGenerator.generateMirCard())
+        .thenReturn("2200000000000001", "2200000000000002", "2200000000000003");
+    when(cardCryptoTinkService.encrypt("2200000000000001"))
+        .thenThrow(new IllegalStateException("Tink failure"));
+    when(cardIssuanceRepository.findExistingNumberHashes(anyCollection())).thenReturn(Set.of());
+    when(cardMaskService.mask(any())).thenAnswer(inv -> "**** " + inv.getArgument(0));
+
+    cardIssuanceService.issueCards(List.of(FIRST_USER, SECOND_USER, FIRST_USER), results::add);
+
+    assertThat(results).extracting(BulkCardIssueItemResponse::index).containsExactly(0, 1, 2);
+    assertThat(results).filteredOn(result -> result.status() == CardIssueStatus.FAILED)
+        .singleElement()
+        .satisfies(result -> assertThat(result.cardId()).isNull());
+    ArgumentCaptor<List<Card>> batches = ArgumentCaptor.captor();
+    verify(cardIssuanceRepository, times(2)).insertCards(batches.capture());
+    assertThat(batches.getAllValues()).flatMap(batch -> batch).hasSize(2);
+  }
+
+  @Test
+  @DisplayName("Исчерпание попыток подобрать уникальный номер не обрывает выпуск")
+  void testIssueCards_UniquenessExhausted() {
+    when(cardNumberGenerator.generateMirCard()).thenReturn("2200000000000001");
+    when(cardIssuanceRepository.findExistingNumberHashes(anyCollection()))
+        .thenReturn(Set.of("hash-2200000000000001"));
+
+    cardIssuanceService.issueCards(List.of(FIRST_USER, SECOND_USER, FIRST_USER), results::add);
+
+    assertThat(results).hasSize(3)
+        .allSatisfy(result -> {
+          assertThat(result.status()).isEqualTo(CardIssueStatus.FAILED);
+          assertThat(result.message()).isEqualTo("Не удалось сгенерировать уникальный номер карты");
+        });
+    verify(cardIssuanceRepository, times(2)).insertCards(List.of());
+  }
+}
@@ -4,27 +4,33 @@ package com.example.bankcards.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import com.example.bankcards.dto.projection.CardListItem;
 import com.example.bankcards.dto.request.CreateCardRequest;
 import com.example.bankcards.dto.response.CardResponse;
 import com.example.bankcards.dto.response.CreateCardResponse;
+import com.example.bankcards.dto.response.CursorPageResponse;
 import com.example.bankcards.dto.response.MessageResponse;
 import com.example.bankcards.entity.BankUser;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.entity.enums.CardStatusEnum;
+import com.example.bankcards.exception.BadRequestException;
 import com.example.bankcards.exception.NotFoundException;
 import com.example.bankcards.exception.UserAlreadyExistsException;
 import com.example.bankcards.repository.CardRepository;
-import com.example.bankcards.repository.CardStatusRepository;
 import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.service.impl.CardServiceImpl;
+import com.example.bankcards.util.CardBlindIndexService;
 import com.example.bankcards.util.CardCryptoTinkService;
 import com.example.bankcards.util.CardMaskService;
 import com.example.bankcards.util.CardNumberGenerator;
+import com.example.bankcards.util.KeysetCursor;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -32,9 +38,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -54,6 +62,8 @@ class CardServiceImplTest {
 
   private static final String ENCRYPTED_PAN = "encryptedPan";
 
+  private static final String PAN_HASH = "panHash";
+
   private static final String MASKED = "****3456";
 
   @Mock
@@ -63,7 +73,7 @@ class CardServiceImplTest {
   private UserRepository userRepository;
 
   @Mock
-  private CardStatusRepository cardStatusRepository;
+  private ReferenceDataService referenceDataService;
 
   @Mock
   private CardNumberGenerator cardNumberGenerator;
@@ -71,6 +81,9 @@ class CardServiceImplTest {
   @Mock
   private CardCryptoTinkService cardCryptoTinkService;
 
+  @Mock
+  private CardBlindIndexService cardBlindIndexService;
+
   @Mock
   private CardMaskService cardMaskService;
 
@@ -83,6 +96,8 @@ class CardServiceImplTest {
 
   private Card card;
 
+  private CardListItem listItem;
+
   @BeforeEach
   void setUp() {
     user = new BankUser();
@@ -90,8 +105,7 @@ class CardServiceImplTest {
     user.setUsername(USERNAME);
     user.setFullName(FULL_NAME);
 
-    activeStatus = new CardStatus();
-    activeStatus.setName(CardStatusEnum.ACTIVE.name());
+    activeStatus = cardStatus(CardStatusEnum.ACTIVE);
 
     card = Card.builder()
         .id(CARD_ID)
@@ -103,6 +117,17 @@ class CardServiceImplTest {
         .status(activeStatus)
         .expiryDate(LocalDate.now().plusYears(5))
         .build();
+
+    listItem = listItem(CARD_ID, "3456", OffsetDateTime.now());
+  }
+
+  private static CardStatus cardStatus(CardStatusEnum status) {
+    return new CardStatus(UUID.fromString(status.getId()), status.name());
+  }
+
+  private static CardListItem listItem(UUID id, String lastFour, OffsetDateTime createdAt) {
+    return new CardListItem(id, lastFour, FULL_NAME, LocalDate.now().plusYears(5),
+        BigDecimal.valueOf(1000), CardStatusEnum.ACTIVE.name(), USER_ID, createdAt);
   }
 
   @Test
@@ -111,9 +136,9 @@ class CardServiceImplTest {
     CreateCardRequest request = new CreateCardRequest(USER_ID);
 
     when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
-    when(cardStatusRepository.getCardStatusByName(CardStatusEnum.ACTIVE.name())).thenReturn(
-        activeStatus);
+    when(referenceDataService.cardStatus(CardStatusEnum.ACTIVE)).thenReturn(activeStatus);
     when(cardNumberGenerator.generateMirCard()).thenReturn(PLAIN_PAN);
+    when(cardBlindIndexService.index(PLAIN_PAN)).thenReturn(PAN_HASH);
     when(cardCryptoTinkService.encrypt(PLAIN_PAN)).thenReturn(ENCRYPTED_PAN);
     when(cardMaskService.mask("3456")).thenReturn(MASKED);
 
@@ -121,7 +146,54 @@ class CardServiceImplTest {
 
     assertThat(response).isNotNull();
     assertThat(response.numberEncrypted()).isEqualTo(MASKED);
-    verify(cardRepository).save(any(Card.class));
+    ArgumentCaptor<Card> saved = ArgumentCaptor.forClass(Card.class);
+    verify(cardRepository).save(saved.capture());
+    assertThat(saved.getValue().getNumberHash()).isEqualTo(PAN_HASH);
+  }
+
+  @Test
+  @DisplayName("Уже выпущенный номер генерируется заново по слепому индексу")
+  void testCreateCard_RegeneratesDuplicatePan() {
+    CreateCardRequest request = new CreateCardRequest(USER_ID);
+    String otherPan = "2200000000000004";
+
+    when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
+    when(referenceDataService.cardStatus(CardStatusEnum.ACTIVE)).thenReturn(activeStatus);
+    when(cardNumberGenerator.generateMirCard()).thenReturn(PLAIN_PAN, otherPan);
+    when(cardBlindIndexService.index(PLAIN_PAN)).thenReturn(PAN_HASH);
+    when(cardBlindIndexService.index(otherPan)).thenReturn("otherHash");
+    when(cardRepository.existsByNumberHash(PAN_HASH)).thenReturn(true);
+    when(cardCryptoTinkService.encrypt(otherPan)).thenReturn(ENCRYPTED_PAN);
+    when(cardMaskService.mask("0004")).thenReturn(MASKED);
+
+    cardService.createCard(request);
+
+    ArgumentCaptor<Card> saved = ArgumentCaptor.forClass(Card.class);
+    verify(cardRepository).save(saved.capture());
+    assertThat(saved.getValue().getNumberHash()).isEqualTo("otherHash");
+    assertThat(saved.getValue().getLastFourDigits()).isEqualTo("0004");
+  }
+
+  @Test
+  @DisplayName("Поиск карты по номеру через слепой индекс")
+  void testFindCardByNumber_Success() {
+    when(cardBlindIndexService.index(PLAIN_PAN)).thenReturn(PAN_HASH);
+    when(cardRepository.findByNumberHash(PAN_HASH)).thenReturn(Optional.of(card));
+    when(cardMaskService.mask("3456")).thenReturn(MASKED);
+
+    CardResponse response = cardService.findCardByNumber(PLAIN_PAN);
+
+    assertThat(response.id()).isEqualTo(CARD_ID);
+    assertThat(response.numberEncrypted()).isEqualTo(MASKED);
+  }
+
+  @Test
+  @DisplayName("Поиск карты по неизвестному номеру")
+  void testFindCardByNumber_NotFound() {
+    when(cardBlindIndexService.index(PLAIN_PAN)).thenReturn(PAN_HASH);
+    when(cardRepository.findByNumberHash(PAN_HASH)).thenReturn(Optional.empty());
+
+    assertThrows(NotFoundException.class, () -> cardService.findCardByNumber(PLAIN_PAN));
   }
 
   @Test
@@ -137,8 +209,8 @@ class CardServiceImplTest {
   @DisplayName("Изменение статуса карты")
   void testChangeCardStatus_Success() {
     when(cardRepository.findById(CARD_ID)).thenReturn(Optional.of(card));
-    when(cardStatusRepository.getCardStatusByName(CardStatusEnum.BLOCKED.name())).thenReturn(
-        new CardStatus());
+    when(referenceDataService.cardStatus(CardStatusEnum.BLOCKED)).thenReturn(
+        cardStatus(CardStatusEnum.BLOCKED));
     when(cardMaskService.mask("3456")).thenReturn(MASKED);
 
     CardResponse response = cardService.changeCardStatus(CARD_ID, CardStatusEnum.BLOCKED);
@@ -151,8 +223,7 @@ class CardServiceImplTest {
   @DisplayName("Попытка изменить статус на текущий")
   void testChangeCardStatus_AlreadySame() {
     when(cardRepository.findById(CARD_ID)).thenReturn(Optional.of(card));
-    when(cardStatusRepository.getCardStatusByName(CardStatusEnum.ACTIVE.name())).thenReturn(
-        activeStatus);
+    when(referenceDataService.cardStatus(CardStatusEnum.ACTIVE)).thenReturn(activeStatus);
 
     assertThrows(UserAlreadyExistsException.class,
         () -> cardService.changeCardStatus(CARD_ID, CardStatusEnum.ACTIVE));
@@ -180,7 +251,7 @@ class CardServiceImplTest {
   @Test
   @DisplayName("Получение информации о карте пользователя")
   void testUsersCards_Success() {
-    when(cardRepository.findById(CARD_ID)).thenReturn(Optional.of(card));
+    when(cardRepository.findByIdWithUserAndStatus(CARD_ID)).thenReturn(Optional.of(card));
     when(cardMaskService.mask("3456")).thenReturn(MASKED);
 
     Optional<CardResponse> response = cardService.usersCards(CARD_ID);
@@ -192,36 +263,110 @@ class CardServiceImplTest {
   @Test
   @DisplayName("Получение всех карт пользователя с пагинацией")
   void testGetUserCards() {
-    Page<Card> page = new PageImpl<>(List.of(card));
-    when(cardRepository.findByUsernameAndSearch(USERNAME, null, Pageable.unpaged())).thenReturn(
-        page);
+    Page<CardListItem> page = new PageImpl<>(List.of(listItem));
+    when(cardRepository.findByUsername(USERNAME, Pageable.unpaged())).thenReturn(page);
     when(cardMaskService.mask("3456")).thenReturn(MASKED);
 
     Page<CardResponse> response = cardService.getUserCards(USERNAME, null, Pageable.unpaged());
 
     assertThat(response.getContent()).hasSize(1);
+    verify(cardRepository, never()).findByUsernameAndSearch(any(), any(), any());
+  }
+
+  @Test
+  @DisplayName("Поиск карт пользователя по последним цифрам номера")
+  void testGetUserCards_WithSearch() {
+    Page<CardListItem> page = new PageImpl<>(List.of(listItem));
+    when(cardRepository.findByUsernameAndSearch(USERNAME, "345", Pageable.unpaged())).thenReturn(
+        page);
+    when(cardMaskService.mask("3456")).thenReturn(MASKED);
+
+    Page<CardResponse> response = cardService.getUserCards(USERNAME, " 345 ", Pageable.unpaged());
+
+    assertThat(response.getContent()).hasSize(1);
+    verify(cardRepository, never()).findByUsername(any(), any());
   }
 
   @Test
   @DisplayName("Получение всех карт с поиском и пагинацией")
   void testGetAllCards() {
-    Page<Card> page = new PageImpl<>(List.of(card));
-    when(cardRepository.findAllWithSearch(null, Pageable.unpaged())).thenReturn(page);
+    Page<CardListItem> page = new PageImpl<>(List.of(listItem));
+    when(cardRepository.findAllListItems(Pageable.unpaged())).thenReturn(page);
+    when(cardMaskService.mask("3456")).thenReturn(MASKED);
+
+    Page<CardResponse> response = cardService.getAllCards("", Pageable.unpaged());
+
+    assertThat(response.getContent()).hasSize(1);
+    verify(cardRepository, never()).findAllWithSearch(any(), any());
+  }
+
+  @Test
+  @DisplayName("Поиск среди всех карт по последним цифрам номера")
+  void testGetAllCards_WithSearch() {
+    Page<CardListItem> page = new PageImpl<>(List.of(listItem));
+    when(cardRepository.findAllWithSearch("3456", Pageable.unpaged())).thenReturn(page);
     when(cardMaskService.mask("3456")).thenReturn(MASKED);
 
-    Page<CardResponse> response = cardService.getAllCards(null, Pageable.unpaged());
+    Page<CardResponse> response = cardService.getAllCards("3456", Pageable.unpaged());
 
     assertThat(response.getContent()).hasSize(1);
+    verify(cardRepository, never()).findAllListItems(any());
+  }
+
+  @Test
+  @DisplayName("Короткая строка поиска среди всех карт отклоняется")
+  void testGetAllCards_ShortSearch() {
+    assertThrows(BadRequestException.class,
+        () -> cardService.getAllCards(" 34 ", Pageable.unpaged()));
+    verify(cardRepository, never()).findAllWithSearch(any(), any());
+  }
+
+  @Test
+  @DisplayName("Первая страница карт пользователя по курсору без запроса количества")
+  void testScrollUserCards_FirstPage() {
+    var newer = listItem(CARD_ID, "3456", OffsetDateTime.parse("2025-01-02T10:00:00Z"));
+    var older = listItem(UUID.fromString("33333333-3333-3333-3333-333333333333"), "7890",
+        OffsetDateTime.parse("2025-01-01T10:00:00Z"));
+    when(cardRepository.findFirstPageByUsername(USERNAME, Limit.of(2)))
+        .thenReturn(List.of(newer, older));
+    when(cardMaskService.mask("3456")).thenReturn(MASKED);
+
+    CursorPageResponse<CardResponse> response = cardService.scrollUserCards(USERNAME, null, 1);
+
+    assertThat(response.content()).extracting(CardResponse::id).containsExactly(CARD_ID);
+    assertThat(response.hasNext()).isTrue();
+    assertThat(KeysetCursor.decode(response.nextCursor()))
+        .isEqualTo(new KeysetCursor(newer.createdAt(), CARD_ID));
+  }
+
+  @Test
+  @DisplayName("Следующая страница всех карт читается после позиции курсора")
+  void testScrollAllCards_NextPage() {
+    var after = new KeysetCursor(OffsetDateTime.parse("2025-01-02T10:00:00Z"), CARD_ID);
+    when(cardRepository.findNextPage(after.createdAt(), after.id(), Limit.of(21)))
+        .thenReturn(List.of(listItem));
+    when(cardMaskService.mask("3456")).thenReturn(MASKED);
+
+    CursorPageResponse<CardResponse> response = cardService.scrollAllCards(after.encode(), 20);
+
+    assertThat(response.content()).hasSize(1);
+    assertThat(response.hasNext()).isFalse();
+    assertThat(response.nextCursor()).isNull();
+  }
+
+  @Test
+  @DisplayName("Размер страницы вне допустимого диапазона отклоняется")
+  void testScrollAllCards_InvalidSize() {
+    assertThrows(BadRequestException.class, () -> cardService.scrollAllCards(null, 0));
+    assertThrows(BadRequestException.class, () -> cardService.scrollAllCards(null, 101));
   }
 
   @Test
   @DisplayName("Блокировка карты пользователем")
   void testBlockCard_Success() {
     when(cardRepository.findById(CARD_ID)).thenReturn(Optional.of(card));
-    CardStatus blockedStatus = new CardStatus();
-    blockedStatus.setName(CardStatusEnum.BLOCKED.name());
-    when(cardStatusRepository.getCardStatusByName(CardStatusEnum.BLOCKED.name())).thenReturn(
-        blockedStatus);
+    when(referenceDataService.cardStatus(CardStatusEnum.BLOCKED)).thenReturn(
+        cardStatus(CardStatusEnum.BLOCKED));
 
     MessageResponse response = cardService.blockCard(CARD_ID, USERNAME);
 
@@ -232,7 +377,7 @@ class CardServiceImplTest {
   @Test
   @DisplayName("Получение баланса карты пользователем")
   void testGetBalance_Success() {
-    when(cardRepository.findById(CARD_ID)).thenReturn(Optional.of(card));
+    when(cardRepository.findByIdWithUserAndStatus(CARD_ID)).thenReturn(Optional.of(card));
 
     var response = cardService.getBalance(CARD_ID, USERNAME);
 
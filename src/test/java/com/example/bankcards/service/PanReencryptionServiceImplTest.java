@@ -0,0 +1,201 @@
+package com.example.bankcards.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.bankcards.config.EncryptionProperties;
+import com.example.bankcards.config.PanReencryptionProperties;
+import com.example.bankcards.dto.projection.EncryptedPan;
+import com.example.bankcards.entity.PanReencryptionCheckpoint;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.PanReencryptionCheckpointRepository;
+import com.example.bankcards.service.impl.PanReencryptionServiceImpl;
+import com.example.bankcards.util.CardBlindIndexService;
+import com.example.bankcards.util.CardCryptoTinkService;
+import com.google.crypto.tink.KeysetHandle;
+import com.google.crypto.tink.TinkJsonProtoKeysetFormat;
+import com.google.crypto.tink.aead.AeadConfig;
+import com.google.crypto.tink.aead.PredefinedAeadParameters;
+import com.google.crypto.tink.subtle.AesGcmJce;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class PanReencryptionServiceImplTest {
+
+  private static final String PAN = "4111111111111111";
+
+  private static final UUID CARD_OLD_KEY = UUID.fromString("11111111-1111-1111-1111-111111111111");
+
+  private static final UUID CARD_NEW_KEY = UUID.fromString("22222222-2222-2222-2222-222222222222");
+
+  private static CardCryptoTinkService oldCrypto;
+
+  private static CardCryptoTinkService newCrypto;
+
+  private static CardBlindIndexService blindIndex;
+
+  @Mock
+  private CardRepository cardRepository;
+
+  @Mock
+  private PanReencryptionCheckpointRepository checkpointRepository;
+
+  @Mock
+  private JdbcTemplate jdbcTemplate;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  private SimpleMeterRegistry meterRegistry;
+
+  private PanReencryptionServiceImpl service;
+
+  @BeforeAll
+  static void rotateKeyset() throws Exception {
+    AeadConfig.register();
+    byte[] masterKey = new byte[32];
+    new SecureRandom().nextBytes(masterKey);
+    byte[] associatedData = "bankcards-keyset".getBytes(StandardCharsets.UTF_8);
+    KeysetHandle handle = KeysetHandle.generateNew(PredefinedAeadParameters.AES256_GCM);
+    KeysetHandle.Builder builder = KeysetHandle.newBuilder(handle);
+    builder.addEntry(KeysetHandle.generateEntryFromParameters(
+        PredefinedAeadParameters.AES256_GCM).withRandomId());
+    builder.getAt(1).makePrimary();
+
+    String encodedMasterKey = Base64.getEncoder().encodeToString(masterKey);
+    blindIndex = new CardBlindIndexService(new EncryptionProperties(null, null, null,
+        encodedMasterKey));
+    oldCrypto = new CardCryptoTinkService(new EncryptionProperties(encodedMasterKey,
+        TinkJsonProtoKeysetFormat.serializeEncryptedKeyset(handle, new AesGcmJce(masterKey),
+            associatedData), null, null));
+    newCrypto = new CardCryptoTinkService(new EncryptionProperties(encodedMasterKey,
+        TinkJsonProtoKeysetFormat.serializeEncryptedKeyset(builder.build(),
+            new AesGcmJce(masterKey), associatedData), null, null));
+  }
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    service = new PanReencryptionServiceImpl(cardRepository, checkpointRepository, newCrypto,
+        blindIndex, jdbcTemplate, transactionManager, new PanReencryptionProperties(100, 2, 100_000),
+        meterRegistry);
+  }
+
+  @AfterEach
+  void tearDown() {
+    service.shutdown();
+  }
+
+  @Test
+  @DisplayName("Номера со старым ключом перешифровываются пакетом с индексом, позиция сохраняется")
+  void testStart_ReencryptsStalePans() throws Exception {
+    String stale = oldCrypto.encrypt(PAN);
+    String current = newCrypto.encrypt(PAN);
+    when(checkpointRepository.findById("pan")).thenReturn(Optional.empty());
+    when(checkpointRepository.save(any(PanReencryptionCheckpoint.class)))
+        .then(returnsFirstArg());
+    when(cardRepository.findEncryptedPansAfter(any(UUID.class), any(Limit.class)))
+        .thenReturn(List.of(new EncryptedPan(CARD_OLD_KEY, stale, null),
+            new EncryptedPan(CARD_NEW_KEY, current, blindIndex.index(PAN))))
+        .thenReturn(List.of());
+    when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1});
+
+    service.start();
+    awaitCompletion();
+
+    ArgumentCaptor<List<Object[]>> updates = ArgumentCaptor.captor();
+    verify(jdbcTemplate).batchUpdate(contains("version = version + 1"), updates.capture());
+    assertThat(updates.getValue()).hasSize(1);
+    Object[] row = updates.getValue().get(0);
+    assertThat(row[1]).isEqualTo(blindIndex.index(PAN));
+    assertThat(row[2]).isEqualTo(CARD_OLD_KEY);
+    assertThat(row[3]).isEqualTo(stale);
+    assertThat(newCrypto.isEncryptedWithPrimary((String) row[0])).isTrue();
+    assertThat(newCrypto.decrypt((String) row[0])).isEqualTo(PAN);
+
+    ArgumentCaptor<PanReencryptionCheckpoint> checkpoint = ArgumentCaptor.captor();
+    verify(checkpointRepository, atLeastOnce()).save(checkpoint.capture());
+    assertThat(checkpoint.getValue().getLastCardId()).isEqualTo(CARD_NEW_KEY);
+    assertThat(checkpoint.getValue().getScanned()).isEqualTo(2);
+    assertThat(checkpoint.getValue().getReencrypted()).isEqualTo(1);
+    assertThat(checkpoint.getValue().getCompletedAt()).isNotNull();
+    assertThat(meterRegistry.get("bank.pan.reencryption.reencrypted").counter().count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Незавершённая задача продолжается с контрольной точки")
+  void testStart_ResumesFromCheckpoint() throws Exception {
+    UUID lastCardId = UUID.fromString("33333333-3333-3333-3333-333333333333");
+    when(checkpointRepository.findById("pan")).thenReturn(Optional.of(
+        PanReencryptionCheckpoint.builder()
+            .jobName("pan")
+            .primaryKeyId(newCrypto.primaryKeyId())
+            .lastCardId(lastCardId)
+            .scanned(500)
+            .build()));
+    when(checkpointRepository.save(any(PanReencryptionCheckpoint.class)))
+        .then(returnsFirstArg());
+    when(cardRepository.findEncryptedPansAfter(any(UUID.class), any(Limit.class)))
+        .thenReturn(List.of());
+
+    service.start();
+    awaitCompletion();
+
+    verify(cardRepository).findEncryptedPansAfter(eq(lastCardId), any(Limit.class));
+  }
+
+  @Test
+  @DisplayName("Контрольная точка другого ключа не используется")
+  void testStart_IgnoresCheckpointOfPreviousKey() throws Exception {
+    when(checkpointRepository.findById("pan")).thenReturn(Optional.of(
+        PanReencryptionCheckpoint.builder()
+            .jobName("pan")
+            .primaryKeyId(oldCrypto.primaryKeyId())
+            .lastCardId(CARD_NEW_KEY)
+            .build()));
+    when(checkpointRepository.save(any(PanReencryptionCheckpoint.class)))
+        .then(returnsFirstArg());
+    when(cardRepository.findEncryptedPansAfter(any(UUID.class), any(Limit.class)))
+        .thenReturn(List.of());
+
+    service.start();
+    awaitCompletion();
+
+    verify(cardRepository).findEncryptedPansAfter(eq(new UUID(0L, 0L)), any(Limit.class));
+  }
+
+  private void awaitCompletion() throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5_000;
+    while (meterRegistry.get("bank.pan.reencryption.running").gauge().value() > 0) {
+      assertThat(System.currentTimeMillis()).isLessThan(deadline);
+      Thread.sleep(10);
+    }
+  }
+}
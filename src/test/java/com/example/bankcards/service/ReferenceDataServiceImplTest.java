@@ -0,0 +1,87 @@
+package com.example.bankcards.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.UserRole;
+import com.example.bankcards.entity.enums.CardStatusEnum;
+import com.example.bankcards.entity.enums.UserRoleEnum;
+import com.example.bankcards.repository.CardStatusRepository;
+import com.example.bankcards.repository.UserRoleRepository;
+import com.example.bankcards.service.impl.ReferenceDataServiceImpl;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ReferenceDataServiceImplTest {
+
+  @Mock
+  private CardStatusRepository cardStatusRepository;
+
+  @Mock
+  private UserRoleRepository userRoleRepository;
+
+  @InjectMocks
+  private ReferenceDataServiceImpl referenceDataService;
+
+  private List<CardStatus> statuses;
+
+  private List<UserRole> roles;
+
+  @BeforeEach
+  void setUp() {
+    statuses = List.of(
+        new CardStatus(UUID.randomUUID(), "ACTIVE"),
+        new CardStatus(UUID.randomUUID(), "BLOCKED"),
+        new CardStatus(UUID.randomUUID(), "EXPIRED"));
+    roles = List.of(
+        new UserRole(UUID.randomUUID(), "ADMIN"),
+        new UserRole(UUID.randomUUID(), "USER"));
+  }
+
+  @Test
+  @DisplayName("Справочники читаются из базы один раз и отдаются по значению перечисления")
+  void testLookup_FromSnapshot() {
+    when(cardStatusRepository.findAll()).thenReturn(statuses);
+    when(userRoleRepository.findAll()).thenReturn(roles);
+    referenceDataService.refresh();
+
+    assertThat(referenceDataService.cardStatus(CardStatusEnum.BLOCKED)).isSameAs(statuses.get(1));
+    assertThat(referenceDataService.cardStatus(CardStatusEnum.BLOCKED)).isSameAs(statuses.get(1));
+    assertThat(referenceDataService.userRole(UserRoleEnum.USER)).isSameAs(roles.get(1));
+    verify(cardStatusRepository, times(1)).findAll();
+    verify(userRoleRepository, times(1)).findAll();
+  }
+
+  @Test
+  @DisplayName("Обновление перечитывает справочники из базы")
+  void testRefresh_ReloadsValues() {
+    var renamedAdmin = new UserRole(UUID.randomUUID(), "ADMIN");
+    when(cardStatusRepository.findAll()).thenReturn(statuses);
+    when(userRoleRepository.findAll()).thenReturn(roles, List.of(renamedAdmin, roles.get(1)));
+    referenceDataService.refresh();
+
+    referenceDataService.refresh();
+
+    assertThat(referenceDataService.userRole(UserRoleEnum.ADMIN)).isSameAs(renamedAdmin);
+  }
+
+  @Test
+  @DisplayName("Отсутствующее в базе значение перечисления не даёт загрузить справочник")
+  void testRefresh_MissingValue() {
+    when(cardStatusRepository.findAll()).thenReturn(statuses.subList(0, 2));
+
+    assertThrows(IllegalStateException.class, () -> referenceDataService.refresh());
+  }
+}
@@ -0,0 +1,140 @@
+package com.example.bankcards.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.example.bankcards.config.TransferProperties;
+import com.example.bankcards.config.TransferProperties.LockingMode;
+import com.example.bankcards.dto.request.TransferRequest;
+import com.example.bankcards.dto.response.TransactionResponse;
+import com.example.bankcards.entity.enums.TransactionStatus;
+import com.example.bankcards.exception.InsufficientBalanceException;
+import com.example.bankcards.service.impl.RetryingTransactionService;
+import com.example.bankcards.service.impl.TransactionServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+@ExtendWith(MockitoExtension.class)
+class RetryingTransactionServiceTest {
+
+  private static final String USERNAME = "testuser";
+
+  private static final int MAX_ATTEMPTS = 3;
+
+  private static final String IDEMPOTENCY_KEY = "key-1";
+
+  private static final TransferRequest REQUEST = new TransferRequest(
+      UUID.fromString("11111111-1111-1111-1111-111111111111"),
+      UUID.fromString("22222222-2222-2222-2222-222222222222"),
+      BigDecimal.TEN);
+
+  private static final TransactionResponse RESPONSE = new TransactionResponse(
+      UUID.fromString("33333333-3333-3333-3333-333333333333"), TransactionStatus.SUCCESS,
+      "Transfer completed successfully");
+
+  @Mock
+  private TransactionServiceImpl transactionService;
+
+  @Mock
+  private TransferIdempotencyService transferIdempotencyService;
+
+  private SimpleMeterRegistry meterRegistry;
+
+  private RetryingTransactionService retryingService;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    TransferProperties properties = new TransferProperties(LockingMode.OPTIMISTIC,
+        new TransferProperties.Retry(MAX_ATTEMPTS, Duration.ofMillis(1), Duration.ofMillis(2)),
+        new TransferProperties.Idempotency(100, Duration.ofMinutes(10)));
+
+    retryingService = new RetryingTransactionService(transactionService,
+        transferIdempotencyService, properties, meterRegistry);
+  }
+
+  @Test
+  @DisplayName("Перевод повторяется после конфликта версий и завершается успешно")
+  void testTransfer_RetriesOnOptimisticLockFailure() {
+    when(transactionService.transfer(REQUEST, USERNAME, null))
+        .thenThrow(conflict())
+        .thenReturn(RESPONSE);
+
+    TransactionResponse response = retryingService.transfer(REQUEST, USERNAME);
+
+    assertThat(response).isEqualTo(RESPONSE);
+    verify(transactionService, times(2)).transfer(REQUEST, USERNAME, null);
+    assertThat(meterRegistry.counter("bank.transfer.optimistic.retries").count()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("После исчерпания попыток конфликт пробрасывается клиенту")
+  void testTransfer_GivesUpAfterMaxAttempts() {
+    when(transactionService.transfer(REQUEST, USERNAME, null)).thenThrow(conflict());
+
+    assertThrows(ObjectOptimisticLockingFailureException.class,
+        () -> retryingService.transfer(REQUEST, USERNAME));
+
+    verify(transactionService, times(MAX_ATTEMPTS)).transfer(REQUEST, USERNAME, null);
+    assertThat(meterRegistry.counter("bank.transfer.optimistic.retries").count())
+        .isEqualTo(MAX_ATTEMPTS - 1);
+    assertThat(meterRegistry.counter("bank.transfer.optimistic.exhausted").count()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Бизнес-ошибки не повторяются")
+  void testTransfer_DoesNotRetryBusinessErrors() {
+    when(transactionService.transfer(REQUEST, USERNAME, null))
+        .thenThrow(new InsufficientBalanceException("Недостаточно средств для перевода"));
+
+    assertThrows(InsufficientBalanceException.class,
+        () -> retryingService.transfer(REQUEST, USERNAME));
+
+    verify(transactionService, times(1)).transfer(REQUEST, USERNAME, null);
+  }
+
+  @Test
+  @DisplayName("Повтор с тем же Idempotency-Key возвращает сохранённый ответ без перевода")
+  void testTransfer_ReplaysStoredResponse() {
+    when(transferIdempotencyService.findTransfer(USERNAME, IDEMPOTENCY_KEY, REQUEST))
+        .thenReturn(Optional.of(RESPONSE));
+
+    TransactionResponse response = retryingService.transfer(REQUEST, USERNAME, IDEMPOTENCY_KEY);
+
+    assertThat(response).isEqualTo(RESPONSE);
+    verifyNoInteractions(transactionService);
+  }
+
+  @Test
+  @DisplayName("Параллельный дубликат получает ответ первого запроса после нарушения уникальности")
+  void testTransfer_ConcurrentDuplicateReturnsWinnerResponse() {
+    when(transferIdempotencyService.findTransfer(USERNAME, IDEMPOTENCY_KEY, REQUEST))
+        .thenReturn(Optional.empty())
+        .thenReturn(Optional.of(RESPONSE));
+    when(transactionService.transfer(REQUEST, USERNAME, IDEMPOTENCY_KEY))
+        .thenThrow(new DataIntegrityViolationException("uq_idempotent_transfers_user_key"));
+
+    TransactionResponse response = retryingService.transfer(REQUEST, USERNAME, IDEMPOTENCY_KEY);
+
+    assertThat(response).isEqualTo(RESPONSE);
+  }
+
+  private static ObjectOptimisticLockingFailureException conflict() {
+    return new ObjectOptimisticLockingFailureException("Card", REQUEST.fromCardId());
+  }
+}
@@ -10,7 +10,11 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 
+import com.example.bankcards.config.TransferProperties;
+import com.example.bankcards.config.TransferProperties.LockingMode;
 import com.example.bankcards.dto.request.TransferRequest;
+import com.example.bankcards.dto.response.BatchTransferItemResponse;
+import com.example.bankcards.dto.response.BatchTransferResponse;
 import com.example.bankcards.dto.response.TransactionResponse;
 import com.example.bankcards.entity.BankUser;
 import com.example.bankcards.entity.Card;
@@ -22,14 +26,14 @@ import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.TransactionRepository;
 import com.example.bankcards.service.impl.TransactionServiceImpl;
 import java.math.BigDecimal;
-import java.util.Optional;
+import java.time.Duration;
+import java.util.List;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.access.AccessDeniedException;
@@ -59,11 +63,14 @@ class TransactionServiceImplTest {
   @Mock
   private TransactionRepository transactionRepository;
 
-  @InjectMocks
+  @Mock
+  private TransferIdempotencyService transferIdempotencyService;
+
   private TransactionServiceImpl transactionService;
 
   @BeforeEach
   void setUp() {
+    transactionService = transactionService(LockingMode.PESSIMISTIC);
 
     fromCard = new Card();
     fromCard.setId(FROM_CARD_ID);
@@ -86,8 +93,8 @@ class TransactionServiceImplTest {
   @DisplayName("Успешный перевод между своими картами")
   void testTransfer_Success() {
 
-    when(cardRepository.findByIdWithUserAndStatus(FROM_CARD_ID)).thenReturn(Optional.of(fromCard));
-    when(cardRepository.findByIdWithUserAndStatus(TO_CARD_ID)).thenReturn(Optional.of(toCard));
+    when(cardRepository.findAllByIdForUpdate(List.of(FROM_CARD_ID, TO_CARD_ID)))
+        .thenReturn(List.of(fromCard, toCard));
     when(transactionRepository.save(any(Transaction.class))).thenAnswer(
         invocation -> invocation.getArgument(0));
 
@@ -108,8 +115,8 @@ class TransactionServiceImplTest {
   @Test
   @DisplayName("Перевод неудачен при недостаточном балансе")
   void testTransfer_InsufficientBalance() {
-    when(cardRepository.findByIdWithUserAndStatus(FROM_CARD_ID)).thenReturn(Optional.of(fromCard));
-    when(cardRepository.findByIdWithUserAndStatus(TO_CARD_ID)).thenReturn(Optional.of(toCard));
+    when(cardRepository.findAllByIdForUpdate(List.of(FROM_CARD_ID, TO_CARD_ID)))
+        .thenReturn(List.of(fromCard, toCard));
 
     TransferRequest request = new TransferRequest(FROM_CARD_ID, TO_CARD_ID, BIG_AMOUNT);
 
@@ -126,8 +133,8 @@ class TransactionServiceImplTest {
   @DisplayName("Перевод неудачен, если карты не принадлежат пользователю")
   void testTransfer_AccessDenied() {
     fromCard.getBankUser().setUsername("anotherUser");
-    when(cardRepository.findByIdWithUserAndStatus(FROM_CARD_ID)).thenReturn(Optional.of(fromCard));
-    when(cardRepository.findByIdWithUserAndStatus(TO_CARD_ID)).thenReturn(Optional.of(toCard));
+    when(cardRepository.findAllByIdForUpdate(List.of(FROM_CARD_ID, TO_CARD_ID)))
+        .thenReturn(List.of(fromCard, toCard));
 
     TransferRequest request = new TransferRequest(FROM_CARD_ID, TO_CARD_ID, TRANSFER_AMOUNT);
 
@@ -140,7 +147,8 @@ class TransactionServiceImplTest {
   @Test
   @DisplayName("Перевод неудачен, если исходная карта не найдена")
   void testTransfer_FromCardNotFound() {
-    when(cardRepository.findByIdWithUserAndStatus(FROM_CARD_ID)).thenReturn(Optional.empty());
+    when(cardRepository.findAllByIdForUpdate(List.of(FROM_CARD_ID, TO_CARD_ID)))
+        .thenReturn(List.of(toCard));
 
     TransferRequest request = new TransferRequest(FROM_CARD_ID, TO_CARD_ID, TRANSFER_AMOUNT);
 
@@ -151,12 +159,183 @@ class TransactionServiceImplTest {
   @Test
   @DisplayName("Перевод неудачен, если карта получателя не найдена")
   void testTransfer_ToCardNotFound() {
-    when(cardRepository.findByIdWithUserAndStatus(FROM_CARD_ID)).thenReturn(Optional.of(fromCard));
-    when(cardRepository.findByIdWithUserAndStatus(TO_CARD_ID)).thenReturn(Optional.empty());
+    when(cardRepository.findAllByIdForUpdate(List.of(FROM_CARD_ID, TO_CARD_ID)))
+        .thenReturn(List.of(fromCard));
 
     TransferRequest request = new TransferRequest(FROM_CARD_ID, TO_CARD_ID, TRANSFER_AMOUNT);
 
     assertThrows(NotFoundException.class, () ->
         transactionService.transfer(request, USERNAME));
   }
+
+  @Test
+  @DisplayName("Обе карты блокируются одним запросом, а не по отдельности")
+  void testTransfer_LocksBothCardsInSingleQuery() {
+    when(cardRepository.findAllByIdForUpdate(List.of(FROM_CARD_ID, TO_CARD_ID)))
+        .thenReturn(List.of(toCard, fromCard));
+    when(transactionRepository.save(any(Transaction.class))).thenAnswer(
+        invocation -> invocation.getArgument(0));
+
+    TransferRequest request = new TransferRequest(FROM_CARD_ID, TO_CARD_ID, TRANSFER_AMOUNT);
+    transactionService.transfer(request, USERNAME);
+
+    verify(cardRepository, times(1)).findAllByIdForUpdate(List.of(FROM_CARD_ID, TO_CARD_ID));
+    verify(cardRepository, never()).findByIdWithUserAndStatus(any(UUID.class));
+    assertThat(fromCard.getBalance()).isEqualByComparingTo(
+        INITIAL_BALANCE.subtract(TRANSFER_AMOUNT));
+  }
+
+  @Test
+  @DisplayName("В оптимистичном режиме карты читаются без блокировки строк")
+  void testTransfer_OptimisticModeDoesNotLockRows() {
+    transactionService = transactionService(LockingMode.OPTIMISTIC);
+    when(cardRepository.findAllById(List.of(FROM_CARD_ID, TO_CARD_ID)))
+        .thenReturn(List.of(fromCard, toCard));
+    when(transactionRepository.save(any(Transaction.class))).thenAnswer(
+        invocation -> invocation.getArgument(0));
+
+    TransferRequest request = new TransferRequest(FROM_CARD_ID, TO_CARD_ID, TRANSFER_AMOUNT);
+    transactionService.transfer(request, USERNAME);
+
+    verify(cardRepository, never()).findAllByIdForUpdate(any());
+    assertThat(toCard.getBalance()).isEqualByComparingTo(INITIAL_BALANCE.add(TRANSFER_AMOUNT));
+  }
+
+  @Test
+  @DisplayName("В атомарном режиме баланс меняется UPDATE-запросами без загрузки карт")
+  void testTransfer_AtomicModeUsesConditionalUpdates() {
+    transactionService = transactionService(LockingMode.ATOMIC);
+    when(cardRepository.findIdsOwnedBy(List.of(FROM_CARD_ID, TO_CARD_ID), USERNAME))
+        .thenReturn(List.of(FROM_CARD_ID, TO_CARD_ID));
+    when(cardRepository.getReferenceById(FROM_CARD_ID)).thenReturn(fromCard);
+    when(cardRepository.getReferenceById(TO_CARD_ID)).thenReturn(toCard);
+    when(cardRepository.debit(FROM_CARD_ID, TRANSFER_AMOUNT)).thenReturn(1);
+    when(cardRepository.credit(TO_CARD_ID, TRANSFER_AMOUNT)).thenReturn(1);
+
+    TransferRequest request = new TransferRequest(FROM_CARD_ID, TO_CARD_ID, TRANSFER_AMOUNT);
+    TransactionResponse response = transactionService.transfer(request, USERNAME);
+
+    assertThat(response.status()).isEqualTo(TransactionStatus.SUCCESS);
+    verify(cardRepository, never()).findAllById(any());
+    verify(cardRepository, never()).save(any(Card.class));
+    verify(cardRepository).credit(TO_CARD_ID, TRANSFER_AMOUNT);
+  }
+
+  @Test
+  @DisplayName("В атомарном режиме нулевое число обновлённых строк означает нехватку средств")
+  void testTransfer_AtomicModeInsufficientBalance() {
+    transactionService = transactionService(LockingMode.ATOMIC);
+    when(cardRepository.findIdsOwnedBy(List.of(FROM_CARD_ID, TO_CARD_ID), USERNAME))
+        .thenReturn(List.of(FROM_CARD_ID, TO_CARD_ID));
+    when(cardRepository.getReferenceById(FROM_CARD_ID)).thenReturn(fromCard);
+    when(cardRepository.getReferenceById(TO_CARD_ID)).thenReturn(toCard);
+    when(cardRepository.debit(FROM_CARD_ID, BIG_AMOUNT)).thenReturn(0);
+
+    TransferRequest request = new TransferRequest(FROM_CARD_ID, TO_CARD_ID, BIG_AMOUNT);
+
+    assertThrows(InsufficientBalanceException.class, () ->
+        transactionService.transfer(request, USERNAME));
+
+    verify(cardRepository, never()).credit(any(UUID.class), any(BigDecimal.class));
+  }
+
+  @Test
+  @DisplayName("В атомарном режиме перевод с чужой карты запрещён")
+  void testTransfer_AtomicModeAccessDenied() {
+    transactionService = transactionService(LockingMode.ATOMIC);
+    when(cardRepository.findIdsOwnedBy(List.of(FROM_CARD_ID, TO_CARD_ID), USERNAME))
+        .thenReturn(List.of(TO_CARD_ID));
+    when(cardRepository.existsById(FROM_CARD_ID)).thenReturn(true);
+    when(cardRepository.existsById(TO_CARD_ID)).thenReturn(true);
+
+    TransferRequest request = new TransferRequest(FROM_CARD_ID, TO_CARD_ID, TRANSFER_AMOUNT);
+
+    assertThrows(AccessDeniedException.class, () ->
+        transactionService.transfer(request, USERNAME));
+
+    verify(cardRepository, never()).debit(any(UUID.class), any(BigDecimal.class));
+  }
+
+  @Test
+  @DisplayName("Результат перевода сохраняется под ключом идемпотентности")
+  void testTransfer_SavesIdempotencyKey() {
+    when(cardRepository.findAllByIdForUpdate(List.of(FROM_CARD_ID, TO_CARD_ID)))
+        .thenReturn(List.of(fromCard, toCard));
+
+    TransferRequest request = new TransferRequest(FROM_CARD_ID, TO_CARD_ID, TRANSFER_AMOUNT);
+    TransactionResponse response = transactionService.transfer(request, USERNAME, "key-1");
+
+    verify(transferIdempotencyService).saveTransfer(USERNAME, "key-1", request, response);
+  }
+
+  @Test
+  @DisplayName("Неудачный перевод не сохраняется под ключом идемпотентности")
+  void testTransfer_FailedTransferIsNotSavedUnderIdempotencyKey() {
+    when(cardRepository.findAllByIdForUpdate(List.of(FROM_CARD_ID, TO_CARD_ID)))
+        .thenReturn(List.of(fromCard, toCard));
+
+    TransferRequest request = new TransferRequest(FROM_CARD_ID, TO_CARD_ID, BIG_AMOUNT);
+
+    assertThrows(InsufficientBalanceException.class, () ->
+        transactionService.transfer(request, USERNAME, "key-1"));
+
+    verify(transferIdempotencyService, never()).saveTransfer(any(), any(), any(), any());
+  }
+
+  @Test
+  @DisplayName("Пакет блокирует все карты одним запросом и возвращает статус каждого перевода")
+  void testTransferBatch_ReportsPerItemStatus() {
+    UUID missingCardId = UUID.fromString("33333333-3333-3333-3333-333333333333");
+    when(cardRepository.findAllByIdForUpdate(List.of(FROM_CARD_ID, TO_CARD_ID, missingCardId)))
+        .thenReturn(List.of(fromCard, toCard));
+
+    List<TransferRequest> requests = List.of(
+        new TransferRequest(FROM_CARD_ID, TO_CARD_ID, TRANSFER_AMOUNT),
+        new TransferRequest(FROM_CARD_ID, TO_CARD_ID, TRANSFER_AMOUNT),
+        new TransferRequest(FROM_CARD_ID, TO_CARD_ID, TRANSFER_AMOUNT),
+        new TransferRequest(missingCardId, TO_CARD_ID, TRANSFER_AMOUNT));
+
+    BatchTransferResponse response = transactionService.transferBatch(requests, USERNAME);
+
+    assertThat(response.succeeded()).isEqualTo(2);
+    assertThat(response.failed()).isEqualTo(2);
+    assertThat(response.items()).extracting(BatchTransferItemResponse::status)
+        .containsExactly(TransactionStatus.SUCCESS, TransactionStatus.SUCCESS,
+            TransactionStatus.FAILED, TransactionStatus.DECLINED);
+    assertThat(fromCard.getBalance()).isEqualByComparingTo(BigDecimal.ZERO);
+    assertThat(toCard.getBalance()).isEqualByComparingTo(
+        INITIAL_BALANCE.add(TRANSFER_AMOUNT).add(TRANSFER_AMOUNT));
+
+    ArgumentCaptor<List<Transaction>> txCaptor = ArgumentCaptor.forClass(List.class);
+    verify(transactionRepository, times(1)).saveAll(txCaptor.capture());
+    assertThat(txCaptor.getValue()).hasSize(3);
+    verify(transactionRepository, never()).save(any(Transaction.class));
+  }
+
+  @Test
+  @DisplayName("Пакетный перевод с чужой карты отклоняется, остальные выполняются")
+  void testTransferBatch_DeclinesForeignCards() {
+    fromCard.getBankUser().setUsername("anotherUser");
+    when(cardRepository.findAllByIdForUpdate(List.of(FROM_CARD_ID, TO_CARD_ID)))
+        .thenReturn(List.of(fromCard, toCard));
+
+    List<TransferRequest> requests = List.of(
+        new TransferRequest(FROM_CARD_ID, TO_CARD_ID, TRANSFER_AMOUNT),
+        new TransferRequest(TO_CARD_ID, TO_CARD_ID, TRANSFER_AMOUNT));
+
+    BatchTransferResponse response = transactionService.transferBatch(requests, USERNAME);
+
+    assertThat(response.items()).extracting(BatchTransferItemResponse::status)
+        .containsExactly(TransactionStatus.DECLINED, TransactionStatus.SUCCESS);
+    assertThat(fromCard.getBalance()).isEqualByComparingTo(INITIAL_BALANCE);
+  }
+
+  private TransactionServiceImpl transactionService(LockingMode lockingMode) {
+    TransferProperties properties = new TransferProperties(lockingMode,
+        new TransferProperties.Retry(5, Duration.ofMillis(10), Duration.ofMillis(200)),
+        new TransferProperties.Idempotency(100, Duration.ofMinutes(10)));
+
+    return new TransactionServiceImpl(cardRepository, transactionRepository, properties,
+        transferIdempotencyService);
+  }
 }
@@ -0,0 +1,118 @@
+package com.example.bankcards.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.bankcards.config.TransferProperties;
+import com.example.bankcards.config.TransferProperties.LockingMode;
+import com.example.bankcards.dto.request.TransferRequest;
+import com.example.bankcards.dto.response.TransactionResponse;
+import com.example.bankcards.entity.IdempotentTransfer;
+import com.example.bankcards.entity.enums.TransactionStatus;
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.repository.IdempotentTransferRepository;
+import com.example.bankcards.service.impl.TransferIdempotencyServiceImpl;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class TransferIdempotencyServiceImplTest {
+
+  private static final String USERNAME = "testuser";
+
+  private static final String KEY = "key-1";
+
+  private static final TransferRequest REQUEST = new TransferRequest(
+      UUID.fromString("11111111-1111-1111-1111-111111111111"),
+      UUID.fromString("22222222-2222-2222-2222-222222222222"),
+      new BigDecimal("10.00"));
+
+  private static final TransactionResponse RESPONSE = new TransactionResponse(
+      UUID.fromString("33333333-3333-3333-3333-333333333333"), TransactionStatus.SUCCESS,
+      "Transfer completed successfully");
+
+  @Mock
+  private IdempotentTransferRepository idempotentTransferRepository;
+
+  private TransferIdempotencyServiceImpl idempotencyService;
+
+  @BeforeEach
+  void setUp() {
+    TransferProperties properties = new TransferProperties(LockingMode.PESSIMISTIC,
+        new TransferProperties.Retry(5, Duration.ofMillis(10), Duration.ofMillis(200)),
+        new TransferProperties.Idempotency(100, Duration.ofMinutes(10)));
+
+    idempotencyService = new TransferIdempotencyServiceImpl(idempotentTransferRepository,
+        properties);
+  }
+
+  @Test
+  @DisplayName("Неизвестный ключ не находит сохранённого перевода")
+  void testFindTransfer_UnknownKey() {
+    when(idempotentTransferRepository.findByUsernameAndIdempotencyKey(USERNAME, KEY))
+        .thenReturn(Optional.empty());
+
+    assertThat(idempotencyService.findTransfer(USERNAME, KEY, REQUEST)).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Сохранённый перевод возвращается из кэша без повторного запроса в БД")
+  void testFindTransfer_SavedTransferIsServedFromCache() {
+    idempotencyService.saveTransfer(USERNAME, KEY, REQUEST, RESPONSE);
+
+    Optional<TransactionResponse> replayed = idempotencyService.findTransfer(USERNAME, KEY,
+        new TransferRequest(REQUEST.fromCardId(), REQUEST.toCardId(), new BigDecimal("10")));
+
+    assertThat(replayed).contains(RESPONSE);
+    verify(idempotentTransferRepository, never()).findByUsernameAndIdempotencyKey(any(), any());
+  }
+
+  @Test
+  @DisplayName("Перевод из БД попадает в кэш")
+  void testFindTransfer_LoadsFromDatabaseOnce() {
+    ArgumentCaptor<IdempotentTransfer> captor = ArgumentCaptor.forClass(IdempotentTransfer.class);
+    idempotencyService.saveTransfer("other", KEY, REQUEST, RESPONSE);
+    verify(idempotentTransferRepository).save(captor.capture());
+    when(idempotentTransferRepository.findByUsernameAndIdempotencyKey(USERNAME, KEY))
+        .thenReturn(Optional.of(captor.getValue()));
+
+    idempotencyService.findTransfer(USERNAME, KEY, REQUEST);
+    Optional<TransactionResponse> replayed = idempotencyService.findTransfer(USERNAME, KEY,
+        REQUEST);
+
+    assertThat(replayed).contains(RESPONSE);
+    verify(idempotentTransferRepository, times(1)).findByUsernameAndIdempotencyKey(USERNAME, KEY);
+  }
+
+  @Test
+  @DisplayName("Ключ нельзя использовать для другого перевода")
+  void testFindTransfer_RejectsDifferentRequestWithSameKey() {
+    idempotencyService.saveTransfer(USERNAME, KEY, REQUEST, RESPONSE);
+    TransferRequest otherRequest = new TransferRequest(REQUEST.fromCardId(), REQUEST.toCardId(),
+        BigDecimal.ONE);
+
+    assertThrows(BadRequestException.class,
+        () -> idempotencyService.findTransfer(USERNAME, KEY, otherRequest));
+  }
+
+  @Test
+  @DisplayName("Слишком длинный ключ отклоняется")
+  void testFindTransfer_RejectsTooLongKey() {
+    assertThrows(BadRequestException.class,
+        () -> idempotencyService.findTransfer(USERNAME, "k".repeat(101), REQUEST));
+  }
+}
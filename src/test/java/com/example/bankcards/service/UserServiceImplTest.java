@@ -4,29 +4,46 @@ package com.example.bankcards.service;
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import com.example.bankcards.config.UserExportProperties;
+import com.example.bankcards.dto.projection.UserListItem;
 import com.example.bankcards.dto.request.UserRoleUpdateRequest;
+import com.example.bankcards.dto.response.CursorPageResponse;
 import com.example.bankcards.dto.response.MessageResponse;
 import com.example.bankcards.dto.response.UserResponse;
 import com.example.bankcards.entity.BankUser;
 import com.example.bankcards.entity.UserRole;
+import com.example.bankcards.entity.enums.UserRoleEnum;
+import com.example.bankcards.exception.BadRequestException;
 import com.example.bankcards.exception.NotFoundException;
+import com.example.bankcards.repository.UserExportJdbcRepository;
 import com.example.bankcards.repository.UserRepository;
-import com.example.bankcards.repository.UserRoleRepository;
+import com.example.bankcards.security.UserDetailsServiceImpl;
+import com.example.bankcards.security.UserRevocationRegistry;
 import com.example.bankcards.service.impl.UserServiceImpl;
+import com.example.bankcards.util.KeysetCursor;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 @ExtendWith(MockitoExtension.class)
 class UserServiceImplTest {
@@ -37,13 +54,28 @@ class UserServiceImplTest {
 
   private static final String ROLE_NAME = "USER";
 
+  private static final int FETCH_SIZE = 500;
+
   private BankUser user;
 
   @Mock
   private UserRepository userRepository;
 
   @Mock
-  private UserRoleRepository userRoleRepository;
+  private ReferenceDataService referenceDataService;
+
+  @Mock
+  private UserRevocationRegistry userRevocationRegistry;
+
+  @Mock
+  private UserDetailsServiceImpl userDetailsService;
+
+  @Mock
+  private UserExportJdbcRepository userExportRepository;
+
+  @Spy
+  private UserExportProperties userExportProperties =
+      new UserExportProperties(FETCH_SIZE, Duration.ofMinutes(30));
 
   @InjectMocks
   private UserServiceImpl userService;
@@ -72,6 +104,61 @@ class UserServiceImplTest {
   }
 
 
+  @Test
+  @DisplayName("Первая страница пользователей по курсору с признаком следующей страницы")
+  void testScrollUsers_FirstPage() {
+    UserListItem newest = listItem(UUID.fromString("33333333-3333-3333-3333-333333333333"), 3);
+    UserListItem middle = listItem(UUID.fromString("22222222-2222-2222-2222-222222222222"), 2);
+    UserListItem oldest = listItem(USER_ID, 1);
+    when(userRepository.findFirstPage(Limit.of(3))).thenReturn(List.of(newest, middle, oldest));
+
+    CursorPageResponse<UserResponse> page = userService.scrollUsers(null, 2);
+
+    assertThat(page.content()).extracting(UserResponse::id).containsExactly(newest.id(),
+        middle.id());
+    assertThat(page.hasNext()).isTrue();
+    assertThat(KeysetCursor.decode(page.nextCursor()))
+        .isEqualTo(new KeysetCursor(middle.createdAt(), middle.id()));
+  }
+
+  @Test
+  @DisplayName("Следующая страница пользователей читается после позиции курсора")
+  void testScrollUsers_NextPage() {
+    var cursor = new KeysetCursor(OffsetDateTime.of(2025, 1, 2, 0, 0, 0, 0, ZoneOffset.UTC),
+        UUID.fromString("22222222-2222-2222-2222-222222222222"));
+    when(userRepository.findNextPage(cursor.createdAt(), cursor.id(), Limit.of(3)))
+        .thenReturn(List.of(listItem(USER_ID, 1)));
+
+    CursorPageResponse<UserResponse> page = userService.scrollUsers(cursor.encode(), 2);
+
+    assertThat(page.content()).hasSize(1);
+    assertThat(page.content().get(0).username()).isEqualTo(USERNAME);
+    assertThat(page.hasNext()).isFalse();
+    assertThat(page.nextCursor()).isNull();
+  }
+
+  @Test
+  @DisplayName("Недопустимый размер страницы пользователей")
+  void testScrollUsers_InvalidSize() {
+    assertThrows(BadRequestException.class, () -> userService.scrollUsers(null, 101));
+    verify(userRepository, never()).findFirstPage(any());
+  }
+
+  @Test
+  @DisplayName("Потоковая выгрузка пользователей курсором с настроенным fetch size")
+  void testStreamUsers() {
+    doAnswer(invocation -> {
+      invocation.<Consumer<UserListItem>>getArgument(1).accept(listItem(USER_ID, 1));
+      return null;
+    }).when(userExportRepository).forEachUser(eq(FETCH_SIZE), any());
+    List<UserResponse> users = new ArrayList<>();
+
+    userService.streamUsers(users::add);
+
+    assertThat(users).containsExactly(new UserResponse(USER_ID, USERNAME, ROLE_NAME, true));
+    verify(userRepository, never()).findAll();
+  }
+
   @Test
   @DisplayName("Получение пользователя по ID")
   void testGetUserById_Success() {
@@ -99,13 +186,17 @@ class UserServiceImplTest {
     UserRoleUpdateRequest request = new UserRoleUpdateRequest("ADMIN");
 
     when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
-    when(userRoleRepository.findByName("ADMIN")).thenReturn(Optional.of(newRole));
+    when(referenceDataService.userRole(UserRoleEnum.ADMIN)).thenReturn(newRole);
     when(userRepository.save(any(BankUser.class))).thenReturn(user);
 
     var response = userService.updateUserRole(USER_ID, request);
 
     assertThat(response.role()).isEqualTo("ADMIN");
+    assertThat(user.getTokensValidAfter()).isNotNull();
     verify(userRepository, times(1)).save(user);
+    verify(userRevocationRegistry).revokeTokensIssuedBefore(user.getUsername(),
+        user.getTokensValidAfter().toInstant());
+    verify(userDetailsService).evict(user.getUsername());
   }
 
   @Test
@@ -121,9 +212,8 @@ class UserServiceImplTest {
   @Test
   @DisplayName("Изменение роли на несуществующую")
   void testUpdateUserRole_RoleNotFound() {
-    UserRoleUpdateRequest request = new UserRoleUpdateRequest("ADMIN");
+    UserRoleUpdateRequest request = new UserRoleUpdateRequest("SUPERUSER");
     when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
-    when(userRoleRepository.findByName("ADMIN")).thenReturn(Optional.empty());
 
     assertThrows(NotFoundException.class, () -> userService.updateUserRole(USER_ID, request));
   }
@@ -139,6 +229,8 @@ class UserServiceImplTest {
     assertThat(response.message()).isEqualTo("Пользователь заблокирован");
     assertThat(user.getEnabled()).isFalse();
     verify(userRepository).save(user);
+    verify(userRevocationRegistry).block(user.getUsername());
+    verify(userDetailsService).evict(user.getUsername());
   }
 
   @Test
@@ -164,6 +256,8 @@ class UserServiceImplTest {
     assertThat(response.message()).isEqualTo("Пользователь разблокирован");
     assertThat(user.getEnabled()).isTrue();
     verify(userRepository).save(user);
+    verify(userRevocationRegistry).unblock(user.getUsername());
+    verify(userDetailsService).evict(user.getUsername());
   }
 
   @Test
@@ -177,4 +271,9 @@ class UserServiceImplTest {
     assertThat(response.message()).isEqualTo("Пользователь уже активен");
     verify(userRepository, never()).save(user);
   }
+
+  private static UserListItem listItem(UUID id, int day) {
+    return new UserListItem(id, id.equals(USER_ID) ? USERNAME : "user-" + day, ROLE_NAME, true,
+        OffsetDateTime.of(2025, 1, day, 0, 0, 0, 0, ZoneOffset.UTC));
+  }
 }
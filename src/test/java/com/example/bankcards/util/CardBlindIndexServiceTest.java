@@ -0,0 +1,41 @@
+package com.example.bankcards.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.example.bankcards.config.EncryptionProperties;
+import java.util.Base64;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CardBlindIndexServiceTest {
+
+  private static final String PAN = "2200123456789010";
+
+  @Test
+  @DisplayName("Индекс номера детерминирован и зависит от ключа")
+  void testIndex_DeterministicPerKey() {
+    var first = service(1);
+    var second = service(2);
+
+    assertThat(first.index(PAN)).isEqualTo(first.index(PAN)).hasSize(64);
+    assertThat(first.index(PAN)).isNotEqualTo(first.index("2200123456789028"));
+    assertThat(first.index(PAN)).isNotEqualTo(second.index(PAN));
+  }
+
+  @Test
+  @DisplayName("Короткий ключ слепого индекса отклоняется")
+  void testShortKey() {
+    var properties = new EncryptionProperties(null, null, null,
+        Base64.getEncoder().encodeToString(new byte[16]));
+
+    assertThrows(IllegalStateException.class, () -> new CardBlindIndexService(properties));
+  }
+
+  private static CardBlindIndexService service(int seed) {
+    byte[] key = new byte[32];
+    key[0] = (byte) seed;
+    return new CardBlindIndexService(new EncryptionProperties(null, null, null,
+        Base64.getEncoder().encodeToString(key)));
+  }
+}
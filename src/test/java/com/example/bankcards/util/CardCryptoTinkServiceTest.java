@@ -0,0 +1,105 @@
+package com.example.bankcards.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.example.bankcards.config.EncryptionProperties;
+import com.google.crypto.tink.KeysetHandle;
+import com.google.crypto.tink.TinkJsonProtoKeysetFormat;
+import com.google.crypto.tink.aead.AeadConfig;
+import com.google.crypto.tink.aead.PredefinedAeadParameters;
+import com.google.crypto.tink.subtle.AesGcmJce;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.util.Base64;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+
+class CardCryptoTinkServiceTest {
+
+  private static final String PAN = "4111111111111111";
+
+  private static String masterKey;
+
+  private static byte[] masterKeyBytes;
+
+  private static KeysetHandle handle;
+
+  private static String keyset;
+
+  @BeforeAll
+  static void generateKeyset() throws Exception {
+    AeadConfig.register();
+    masterKeyBytes = new byte[32];
+    new SecureRandom().nextBytes(masterKeyBytes);
+    masterKey = Base64.getEncoder().encodeToString(masterKeyBytes);
+    handle = KeysetHandle.generateNew(PredefinedAeadParameters.AES256_GCM);
+    keyset = TinkJsonProtoKeysetFormat.serializeEncryptedKeyset(handle,
+        new AesGcmJce(masterKeyBytes), CardCryptoTinkService.KEYSET_ASSOCIATED_DATA);
+  }
+
+  @Test
+  @DisplayName("Номер, зашифрованный одним экземпляром, расшифровывается другим с тем же набором")
+  void testDecrypt_AcrossInstances() {
+    var first = new CardCryptoTinkService(new EncryptionProperties(masterKey, keyset, null, null));
+    var second = new CardCryptoTinkService(new EncryptionProperties(masterKey, keyset, null, null));
+
+    String encrypted = first.encrypt(PAN);
+
+    assertThat(encrypted).doesNotContain(PAN);
+    assertThat(second.decrypt(encrypted)).isEqualTo(PAN);
+  }
+
+  @Test
+  @DisplayName("Ключевой набор загружается из файла")
+  void testKeysetFile(@TempDir Path dir) throws Exception {
+    Path file = Files.writeString(dir.resolve("keyset.json"), keyset);
+    var service = new CardCryptoTinkService(
+        new EncryptionProperties(masterKey, "", new FileSystemResource(file), null));
+
+    assertThat(service.decrypt(service.encrypt(PAN))).isEqualTo(PAN);
+  }
+
+  @Test
+  @DisplayName("Ключевой набор не расшифровывается чужим мастер-ключом")
+  void testWrongMasterKey() {
+    byte[] otherKey = new byte[32];
+    new SecureRandom().nextBytes(otherKey);
+    var properties = new EncryptionProperties(Base64.getEncoder().encodeToString(otherKey),
+        keyset, null, null);
+
+    assertThrows(RuntimeException.class, () -> new CardCryptoTinkService(properties));
+  }
+
+  @Test
+  @DisplayName("Без ключевого набора сервис не запускается")
+  void testMissingKeyset() {
+    var properties = new EncryptionProperties(masterKey, null, null, null);
+
+    assertThrows(IllegalStateException.class, () -> new CardCryptoTinkService(properties));
+  }
+
+  @Test
+  @DisplayName("После ротации старые номера расшифровываются и перешифровываются новым ключом")
+  void testReencrypt_AfterRotation() throws Exception {
+    var before = new CardCryptoTinkService(new EncryptionProperties(masterKey, keyset, null, null));
+    String encrypted = before.encrypt(PAN);
+    KeysetHandle.Builder builder = KeysetHandle.newBuilder(handle);
+    builder.addEntry(KeysetHandle.generateEntryFromParameters(
+        PredefinedAeadParameters.AES256_GCM).withRandomId());
+    builder.getAt(1).makePrimary();
+    String rotated = TinkJsonProtoKeysetFormat.serializeEncryptedKeyset(builder.build(),
+        new AesGcmJce(masterKeyBytes), CardCryptoTinkService.KEYSET_ASSOCIATED_DATA);
+    var after = new CardCryptoTinkService(new EncryptionProperties(masterKey, rotated, null, null));
+
+    assertThat(before.isEncryptedWithPrimary(encrypted)).isTrue();
+    assertThat(after.isEncryptedWithPrimary(encrypted)).isFalse();
+    String reencrypted = after.reencrypt(encrypted);
+    assertThat(after.isEncryptedWithPrimary(reencrypted)).isTrue();
+    assertThat(after.decrypt(reencrypted)).isEqualTo(PAN);
+  }
+}
@@ -0,0 +1,59 @@
+package com.example.bankcards.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CardNumberGeneratorTest {
+
+  private final CardNumberGenerator generator = new CardNumberGenerator();
+
+  @Test
+  @DisplayName("Номер карты МИР из 16 цифр с корректной контрольной цифрой Луна")
+  void testGenerateMirCard_ValidLuhn() {
+    for (int i = 0; i < 10_000; i++) {
+      String cardNumber = generator.generateMirCard();
+
+      assertThat(cardNumber).matches("220[0124]\\d{12}");
+      assertThat(isLuhnValid(cardNumber)).as(cardNumber).isTrue();
+    }
+  }
+
+  @Test
+  @DisplayName("Контрольная цифра Луна совпадает с эталонным номером")
+  void testLuhnCheckDigit() {
+    char[] cardNumber = "4111111111111111".toCharArray();
+
+    assertThat(CardNumberGenerator.luhnCheckDigit(cardNumber, 15)).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Номера генерируются без повторов и используют все префиксы")
+  void testGenerateMirCard_Distribution() {
+    Set<String> numbers = new HashSet<>();
+    Set<String> prefixes = new HashSet<>();
+    for (int i = 0; i < 10_000; i++) {
+      String cardNumber = generator.generateMirCard();
+      numbers.add(cardNumber);
+      prefixes.add(cardNumber.substring(0, 4));
+    }
+
+    assertThat(numbers).hasSize(10_000);
+    assertThat(prefixes).containsExactlyInAnyOrder("2200", "2201", "2202", "2204");
+  }
+
+  private static boolean isLuhnValid(String cardNumber) {
+    int sum = 0;
+    for (int i = 0; i < cardNumber.length(); i++) {
+      int digit = cardNumber.charAt(cardNumber.length() - 1 - i) - '0';
+      if (i % 2 == 1) {
+        digit = digit * 2 > 9 ? digit * 2 - 9 : digit * 2;
+      }
+      sum += digit;
+    }
+    return sum % 10 == 0;
+  }
+}
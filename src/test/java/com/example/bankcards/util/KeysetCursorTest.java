@@ -0,0 +1,43 @@
+package com.example.bankcards.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.example.bankcards.exception.BadRequestException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class KeysetCursorTest {
+
+  private static final UUID ID = UUID.fromString("22222222-2222-2222-2222-222222222222");
+
+  @Test
+  @DisplayName("Курсор восстанавливается из закодированной строки без потери микросекунд")
+  void testEncodeDecode_RoundTrip() {
+    var createdAt = OffsetDateTime.of(2025, 3, 1, 12, 30, 15, 123_456_000, ZoneOffset.ofHours(3));
+    var cursor = new KeysetCursor(createdAt, ID);
+
+    var decoded = KeysetCursor.decode(cursor.encode());
+
+    assertThat(decoded.createdAt().toInstant()).isEqualTo(createdAt.toInstant());
+    assertThat(decoded.id()).isEqualTo(ID);
+  }
+
+  @Test
+  @DisplayName("Закодированный курсор безопасен для передачи в URL")
+  void testEncode_UrlSafe() {
+    var cursor = new KeysetCursor(OffsetDateTime.now(), ID);
+
+    assertThat(cursor.encode()).matches("[A-Za-z0-9_-]+");
+  }
+
+  @Test
+  @DisplayName("Некорректный курсор отклоняется с ошибкой запроса")
+  void testDecode_Invalid() {
+    assertThrows(BadRequestException.class, () -> KeysetCursor.decode("not-a-cursor"));
+    assertThrows(BadRequestException.class, () -> KeysetCursor.decode("!!!"));
+  }
+}
@@ -0,0 +1,62 @@
+package com.example.bankcards.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.bankcards.dto.response.CursorPageResponse;
+import com.example.bankcards.exception.BadRequestException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+class KeysetPagesTest {
+
+  private static final OffsetDateTime CREATED_AT =
+      OffsetDateTime.of(2025, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+  @Test
+  @DisplayName("Запрос читает на одну строку больше размера страницы")
+  void testLookAheadLimit() {
+    assertThat(KeysetPages.lookAheadLimit(20)).isEqualTo(Limit.of(21));
+  }
+
+  @Test
+  @DisplayName("Размер страницы вне диапазона 1..100 отклоняется")
+  void testLookAheadLimit_InvalidSize() {
+    assertThatThrownBy(() -> KeysetPages.lookAheadLimit(0))
+        .isInstanceOf(BadRequestException.class);
+    assertThatThrownBy(() -> KeysetPages.lookAheadLimit(KeysetPages.MAX_SIZE + 1))
+        .isInstanceOf(BadRequestException.class);
+  }
+
+  @Test
+  @DisplayName("Лишняя строка отбрасывается, курсор указывает на последнюю строку страницы")
+  void testToPage_HasNext() {
+    List<UUID> rows = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+
+    CursorPageResponse<String> page = KeysetPages.toPage(rows, 2,
+        id -> new KeysetCursor(CREATED_AT, id), UUID::toString);
+
+    assertThat(page.content()).containsExactly(rows.get(0).toString(), rows.get(1).toString());
+    assertThat(page.hasNext()).isTrue();
+    assertThat(KeysetCursor.decode(page.nextCursor()))
+        .isEqualTo(new KeysetCursor(CREATED_AT, rows.get(1)));
+  }
+
+  @Test
+  @DisplayName("Последняя страница без курсора")
+  void testToPage_LastPage() {
+    List<UUID> rows = List.of(UUID.randomUUID());
+
+    CursorPageResponse<String> page = KeysetPages.toPage(rows, 2,
+        id -> new KeysetCursor(CREATED_AT, id), UUID::toString);
+
+    assertThat(page.content()).hasSize(1);
+    assertThat(page.hasNext()).isFalse();
+    assertThat(page.nextCursor()).isNull();
+  }
+}
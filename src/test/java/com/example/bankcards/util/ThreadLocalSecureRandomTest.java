@@ -0,0 +1,22 @@
+package com.example.bankcards.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.security.SecureRandom;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ThreadLocalSecureRandomTest {
+
+  @Test
+  @DisplayName("Каждый поток получает собственный экземпляр DRBG")
+  void testCurrent_PerThreadDrbg() {
+    SecureRandom main = ThreadLocalSecureRandom.current();
+    SecureRandom other = CompletableFuture.supplyAsync(ThreadLocalSecureRandom::current).join();
+
+    assertThat(main.getAlgorithm()).isEqualTo("DRBG");
+    assertThat(ThreadLocalSecureRandom.current()).isSameAs(main);
+    assertThat(other).isNotSameAs(main);
+  }
+}
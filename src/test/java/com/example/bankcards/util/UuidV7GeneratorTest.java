@@ -0,0 +1,45 @@
+package com.example.bankcards.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class UuidV7GeneratorTest {
+
+  @Test
+  @DisplayName("UUID имеет версию 7 и вариант RFC 4122")
+  void testNext_VersionAndVariant() {
+    UUID uuid = UuidV7Generator.next();
+
+    assertThat(uuid.version()).isEqualTo(7);
+    assertThat(uuid.variant()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Старшие 48 бит содержат текущее время в миллисекундах")
+  void testNext_EmbedsTimestamp() {
+    long before = System.currentTimeMillis();
+    UUID uuid = UuidV7Generator.next();
+    long after = System.currentTimeMillis();
+
+    long timestamp = uuid.getMostSignificantBits() >>> 16;
+
+    assertThat(timestamp).isBetween(before, after + 1);
+  }
+
+  @Test
+  @DisplayName("Последовательно выданные UUID строго возрастают в порядке Postgres")
+  void testNext_MonotonicInPostgresOrder() {
+    List<UUID> generated = new ArrayList<>();
+    for (int i = 0; i < 10_000; i++) {
+      generated.add(UuidV7Generator.next());
+    }
+
+    assertThat(generated).isSortedAccordingTo(CardLockOrder.COMPARATOR);
+    assertThat(generated).doesNotHaveDuplicates();
+  }
+}
@@ -0,0 +1,21 @@
+INSERT INTO users (username, password, full_name, role_id)
+SELECT 'plan_user_' || g, 'not-a-hash', 'PLAN USER', 'bbbbbbbb-bbbb-bbbb-bbbb-bbbbbbbbbbbb'
+FROM generate_series(1, 2000) g;
+
+INSERT INTO cards (number_encrypted, number_hash, last_four_digits, holder_name, expiry_date, status_id, balance, user_id)
+SELECT 'plan_' || u.username || '_' || g, encode(sha256(('plan_' || u.username || '_' || g)::bytea), 'hex'),
+       lpad((g * 37 % 10000)::text, 4, '0'), u.full_name,
+       DATE '2030-12-31', '11111111-1111-1111-1111-111111111111', 100, u.id
+FROM users u
+CROSS JOIN generate_series(1, 10) g
+WHERE u.username LIKE 'plan_user_%';
+
+INSERT INTO transactions (from_card_id, to_card_id, amount, status, created_at)
+SELECT c.id, c.id, 1, 'SUCCESS', now() - g * INTERVAL '1 minute'
+FROM cards c
+CROSS JOIN generate_series(1, 5) g
+WHERE c.number_encrypted LIKE 'plan_%';
+
+ANALYZE users;
+ANALYZE cards;
+ANALYZE transactions;